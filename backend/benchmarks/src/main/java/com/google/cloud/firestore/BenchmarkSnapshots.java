@@ -0,0 +1,17 @@
+package com.google.cloud.firestore;
+
+import java.util.Map;
+
+/**
+ * Builds a real {@link DocumentSnapshot} from document data without a
+ * Firestore backend. The SDK has no public factory for snapshots, so this
+ * lives in its package to reach {@code DocumentSnapshot.fromObject}.
+ */
+public class BenchmarkSnapshots {
+
+	public static DocumentSnapshot document(Firestore firestore, String path, Map<String, Object> data) {
+		return DocumentSnapshot.fromObject(
+				(FirestoreImpl) firestore, firestore.document(path), data, UserDataConverter.NO_DELETES
+		);
+	}
+}
@@ -0,0 +1,127 @@
+package com.nosetr.video.hub.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.cloud.NoCredentials;
+import com.google.cloud.firestore.BenchmarkSnapshots;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.FirestoreOptions;
+import com.nosetr.video.hub.dto.ScoreDto;
+import com.nosetr.video.hub.dto.VideoResponseDto;
+
+/**
+ * Mapping one video document into a {@link VideoResponseDto}: the SDK's
+ * reflective {@code toObject} against reading the fields by hand, both from
+ * a real {@link DocumentSnapshot}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MappingBenchmark {
+
+	@Param({ "0", "10", "100" })
+	private int ratings;
+
+	private Firestore firestore;
+	private DocumentSnapshot snapshot;
+
+	@Setup
+	public void setUp() {
+		// Never connects: the snapshot is built locally
+		firestore = FirestoreOptions.newBuilder()
+				.setProjectId("benchmark")
+				.setCredentials(NoCredentials.getInstance())
+				.build()
+				.getService();
+
+		VideoResponseDto video = SyntheticVideos.videos(1, ratings, 42)
+				.get(0);
+		snapshot = BenchmarkSnapshots.document(
+				firestore, "videos/" + video.getId(), SyntheticVideos.toDocumentData(video)
+		);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		firestore.close();
+	}
+
+	@Benchmark
+	public VideoResponseDto toObject() {
+		VideoResponseDto dto = snapshot.toObject(VideoResponseDto.class);
+		dto.setId(snapshot.getId());
+		return dto;
+	}
+
+	@Benchmark
+	public VideoResponseDto handMapping() {
+		return new VideoResponseDto().toBuilder()
+				.id(snapshot.getId())
+				.userId(snapshot.getString("userId"))
+				.creator(snapshot.getString("creator"))
+				.title(snapshot.getString("title"))
+				.day(snapshot.getString("day"))
+				.from(snapshot.getString("from"))
+				.till(snapshot.getString("till"))
+				.ratings(toRatings(snapshot.get("ratings")))
+				.ratingCount(toLong(snapshot.getLong("ratingCount")))
+				.ratingSum(toLong(snapshot.getLong("ratingSum")))
+				.averageRating(toDouble(snapshot.getDouble("averageRating")))
+				.isoYear(toInteger(snapshot.getLong("isoYear")))
+				.isoWeek(toInteger(snapshot.getLong("isoWeek")))
+				.epochDay(snapshot.getLong("epochDay"))
+				.fromMinute(toInteger(snapshot.getLong("fromMinute")))
+				.tillMinute(toInteger(snapshot.getLong("tillMinute")))
+				.build();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<ScoreDto> toRatings(Object value) {
+		if (!(value instanceof List<?> list)) { return null; }
+
+		List<ScoreDto> ratings = new ArrayList<>(list.size());
+		for (Object element : list) {
+			Map<String, Object> map = (Map<String, Object>) element;
+			Number score = (Number) map.get("score");
+			ratings.add(
+					new ScoreDto(
+							(String) map.get("voter"), (score == null) ? null : score.intValue(), (String) map.get("text")
+					)
+			);
+		}
+		return ratings;
+	}
+
+	private static long toLong(Long value) {
+		return (value == null) ? 0 : value;
+	}
+
+	private static double toDouble(Double value) {
+		return (value == null) ? 0 : value;
+	}
+
+	private static Integer toInteger(Long value) {
+		return (value == null) ? null : value.intValue();
+	}
+}
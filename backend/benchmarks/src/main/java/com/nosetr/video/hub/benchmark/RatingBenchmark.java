@@ -0,0 +1,87 @@
+package com.nosetr.video.hub.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nosetr.video.hub.dto.ScoreDto;
+
+/**
+ * CPU cost of accepting one vote: scanning the ratings list for a duplicate
+ * voter and re-summing every score, against a voter-marker lookup plus running
+ * aggregates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RatingBenchmark {
+
+	@Param({ "10", "100", "1000", "10000" })
+	private int ratings;
+
+	private List<ScoreDto> ratingList;
+	private Set<String> voters;
+	private long ratingCount;
+	private long ratingSum;
+	private ScoreDto vote;
+
+	@Setup
+	public void setUp() {
+		ratingList = SyntheticVideos.ratings(ratings, new SplittableRandom(42));
+
+		voters = new HashSet<>();
+		for (ScoreDto rating : ratingList) {
+			voters.add(rating.getVoter());
+			ratingCount++;
+			ratingSum += rating.getScore();
+		}
+
+		vote = new ScoreDto("new-voter", 4, "new vote");
+	}
+
+	@Benchmark
+	public int scanAndResum() {
+		boolean userAlreadyVoted = ratingList.stream()
+				.anyMatch(
+						r -> r.getVoter()
+								.equals(vote.getVoter())
+				);
+		if (userAlreadyVoted) { return -1; }
+
+		List<ScoreDto> updated = new ArrayList<>(ratingList);
+		updated.add(vote);
+
+		int score = 0;
+		for (ScoreDto rating : updated) {
+			score += rating.getScore();
+		}
+		return score / updated.size();
+	}
+
+	@Benchmark
+	public double markerAndAggregates() {
+		if (voters.contains(vote.getVoter())) { return -1; }
+
+		long count = ratingCount + 1;
+		long sum = ratingSum + vote.getScore();
+		return (double) sum / count;
+	}
+}
@@ -0,0 +1,83 @@
+package com.nosetr.video.hub.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.nosetr.video.hub.dto.VideoResponseDto;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Encoding a large {@code Flux<VideoResponseDto>} the way WebFlux writes the
+ * response body. Returns the number of bytes produced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SerializationBenchmark {
+
+	private static final ResolvableType ELEMENT_TYPE = ResolvableType.forClass(VideoResponseDto.class);
+
+	@Param({ "1000", "100000", "1000000" })
+	private int videos;
+
+	@Param({ "5" })
+	private int ratingsPerVideo;
+
+	private List<VideoResponseDto> data;
+	private Jackson2JsonEncoder encoder;
+	private DataBufferFactory bufferFactory;
+
+	@Setup
+	public void setUp() {
+		data = SyntheticVideos.videos(videos, ratingsPerVideo, 42);
+		encoder = new Jackson2JsonEncoder(
+				Jackson2ObjectMapperBuilder.json()
+						.build()
+		);
+		bufferFactory = DefaultDataBufferFactory.sharedInstance;
+	}
+
+	@Benchmark
+	public long jsonArray() {
+		return encode(MediaType.APPLICATION_JSON);
+	}
+
+	@Benchmark
+	public long ndjson() {
+		return encode(MediaType.APPLICATION_NDJSON);
+	}
+
+	private long encode(MediaType mediaType) {
+		return encoder.encode(Flux.fromIterable(data), bufferFactory, ELEMENT_TYPE, mediaType, null)
+				.map(buffer -> {
+					long bytes = buffer.readableByteCount();
+					DataBufferUtils.release(buffer);
+					return bytes;
+				})
+				.reduce(0L, Long::sum)
+				.block();
+	}
+}
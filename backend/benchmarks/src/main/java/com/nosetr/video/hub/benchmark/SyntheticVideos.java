@@ -0,0 +1,112 @@
+package com.nosetr.video.hub.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import com.nosetr.video.hub.dto.ScoreDto;
+import com.nosetr.video.hub.dto.VideoDto;
+import com.nosetr.video.hub.dto.VideoResponseDto;
+import com.nosetr.video.hub.util.VideoDateUtil;
+
+/**
+ * Deterministic synthetic data sets for the benchmarks.
+ */
+public class SyntheticVideos {
+
+	public static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+	public static final int DAYS = 5 * 365;
+	public static final int USERS = 1000;
+
+	public static List<VideoResponseDto> videos(int count, int ratingsPerVideo, long seed) {
+		SplittableRandom random = new SplittableRandom(seed);
+
+		List<VideoResponseDto> videos = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			VideoDto videoDto = new VideoDto().toBuilder()
+					.userId("user-" + random.nextInt(USERS))
+					.title("training session " + i)
+					.day(
+							FIRST_DAY.plusDays(random.nextInt(DAYS))
+									.toString()
+					)
+					.from("09:00")
+					.till("17:00")
+					.build();
+			VideoDateUtil.applyDateFields(videoDto);
+			VideoDateUtil.applyTimeFields(videoDto);
+
+			List<ScoreDto> ratings = ratings(ratingsPerVideo, random);
+			long sum = 0;
+			for (ScoreDto rating : ratings) {
+				sum += rating.getScore();
+			}
+
+			videos.add(
+					new VideoResponseDto().toBuilder()
+							.id(String.format("video-%08d", i))
+							.userId(videoDto.getUserId())
+							.creator(videoDto.getUserId())
+							.title(videoDto.getTitle())
+							.day(videoDto.getDay())
+							.from(videoDto.getFrom())
+							.till(videoDto.getTill())
+							.ratings(ratings)
+							.ratingCount(ratings.size())
+							.ratingSum(sum)
+							.averageRating(ratings.isEmpty() ? 0 : (double) sum / ratings.size())
+							.isoYear(videoDto.getIsoYear())
+							.isoWeek(videoDto.getIsoWeek())
+							.epochDay(videoDto.getEpochDay())
+							.fromMinute(videoDto.getFromMinute())
+							.tillMinute(videoDto.getTillMinute())
+							.build()
+			);
+		}
+		return videos;
+	}
+
+	public static List<ScoreDto> ratings(int count, SplittableRandom random) {
+		List<ScoreDto> ratings = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			ratings.add(new ScoreDto("voter-" + i, random.nextInt(1, 6), "comment number " + i));
+		}
+		return ratings;
+	}
+
+	/**
+	 * The document data of the video as Firestore reads it back
+	 * ({@code DocumentSnapshot.getData()}): every integer is a {@link Long}.
+	 */
+	public static Map<String, Object> toDocumentData(VideoResponseDto video) {
+		List<Map<String, Object>> ratings = new ArrayList<>();
+		for (ScoreDto rating : video.getRatings()) {
+			Map<String, Object> map = new HashMap<>();
+			map.put("voter", rating.getVoter());
+			map.put("score", (long) rating.getScore());
+			map.put("text", rating.getText());
+			ratings.add(map);
+		}
+
+		Map<String, Object> data = new HashMap<>();
+		data.put("userId", video.getUserId());
+		data.put("creator", video.getCreator());
+		data.put("title", video.getTitle());
+		data.put("day", video.getDay());
+		data.put("from", video.getFrom());
+		data.put("till", video.getTill());
+		data.put("ratings", ratings);
+		data.put("ratingCount", video.getRatingCount());
+		data.put("ratingSum", video.getRatingSum());
+		data.put("averageRating", video.getAverageRating());
+		data.put("isoYear", (long) video.getIsoYear());
+		data.put("isoWeek", (long) video.getIsoWeek());
+		data.put("epochDay", video.getEpochDay());
+		data.put("fromMinute", (long) video.getFromMinute());
+		data.put("tillMinute", (long) video.getTillMinute());
+		return data;
+	}
+}
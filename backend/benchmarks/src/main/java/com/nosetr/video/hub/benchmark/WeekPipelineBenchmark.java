@@ -0,0 +1,111 @@
+package com.nosetr.video.hub.benchmark;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.WeekFields;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nosetr.video.hub.dto.VideoResponseDto;
+import com.nosetr.video.hub.util.VideoDateUtil;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Selecting and sorting the videos of one week: the original parse/filter/sort
+ * pipeline against the stored ISO fields and the sorted day index of the view.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class WeekPipelineBenchmark {
+
+	private static final int YEAR = 2022;
+	private static final int WEEK = 20;
+
+	@Param({ "1000", "10000", "100000", "1000000" })
+	private int videos;
+
+	private List<VideoResponseDto> data;
+	private NavigableSet<VideoResponseDto> byDay;
+	private long firstDay;
+
+	@Setup
+	public void setUp() {
+		data = SyntheticVideos.videos(videos, 0, 42);
+
+		byDay = new ConcurrentSkipListSet<>(
+				Comparator.comparingLong(VideoResponseDto::getEpochDay)
+						.thenComparing(VideoResponseDto::getId)
+		);
+		byDay.addAll(data);
+
+		firstDay = VideoDateUtil.firstEpochDayOfWeek(YEAR, WEEK);
+	}
+
+	@Benchmark
+	public List<VideoResponseDto> parseFilterSort() {
+		DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+		return Flux.fromIterable(data)
+				.filter(video -> {
+					LocalDate date = LocalDate.parse(video.getDay(), formatter);
+					int videoWeek = date.get(
+							WeekFields.of(Locale.getDefault())
+									.weekOfYear()
+					);
+					return videoWeek == WEEK && date.getYear() == YEAR;
+				})
+				.sort((r1, r2) -> {
+					LocalDate date1 = LocalDate.parse(r1.getDay(), formatter);
+					LocalDate date2 = LocalDate.parse(r2.getDay(), formatter);
+					return date1.compareTo(date2);
+				})
+				.collectList()
+				.block();
+	}
+
+	@Benchmark
+	public List<VideoResponseDto> epochDayFilterSort() {
+		long lastDay = firstDay + 6;
+
+		return Flux.fromIterable(data)
+				.filter(video -> video.getEpochDay() >= firstDay && video.getEpochDay() <= lastDay)
+				.sort(Comparator.comparingLong(VideoResponseDto::getEpochDay))
+				.collectList()
+				.block();
+	}
+
+	@Benchmark
+	public List<VideoResponseDto> sortedDayIndexRange() {
+		return byDay.subSet(bound(firstDay), true, bound(firstDay + 7), false)
+				.stream()
+				.toList();
+	}
+
+	private static VideoResponseDto bound(long epochDay) {
+		return new VideoResponseDto().toBuilder()
+				.id("")
+				.epochDay(epochDay)
+				.build();
+	}
+}
@@ -0,0 +1,44 @@
+#!/usr/bin/env bash
+# Time from launching the JVM until the first successful health check, averaged over several runs.
+# The application logs go to target/startup-benchmark-<run>.log.
+#
+# Usage (from backend/):
+#   scripts/startup-benchmark.sh [runs] [JVM and application options...]
+#
+# Examples:
+#   scripts/startup-benchmark.sh 5 -jar target/FirebaseVideoHub-0.0.1-SNAPSHOT.jar
+#   scripts/startup-benchmark.sh 5 -jar target/FirebaseVideoHub-0.0.1-SNAPSHOT.jar --firebase.lazy-init=true
+#   cd target/cds && ../../scripts/startup-benchmark.sh 5 -XX:SharedArchiveFile=application.jsa \
+#       -jar FirebaseVideoHub-0.0.1-SNAPSHOT.jar --firebase.lazy-init=true
+
+set -euo pipefail
+
+runs="${1:-5}"
+shift || true
+port="${PORT:-18080}"
+total=0
+logs="$(cd "$(dirname "$0")/.." && pwd)/target"
+mkdir -p "$logs"
+
+for run in $(seq 1 "$runs"); do
+	start=$(date +%s%N)
+	java "$@" --server.port="$port" --management.server.port="$((port + 1))" > "$logs/startup-benchmark-$run.log" 2>&1 &
+	pid=$!
+
+	until curl -sf -o /dev/null "http://localhost:$port/readyz"; do
+		if ! kill -0 "$pid" 2> /dev/null; then
+			echo "run $run: the application exited, see $logs/startup-benchmark-$run.log" >&2
+			exit 1
+		fi
+		sleep 0.01
+	done
+
+	millis=$(( ($(date +%s%N) - start) / 1000000 ))
+	total=$(( total + millis ))
+	echo "run $run: healthy after $millis ms"
+
+	kill "$pid"
+	wait "$pid" 2> /dev/null || true
+done
+
+echo "average: $(( total / runs )) ms over $runs runs"
@@ -0,0 +1,79 @@
+package com.nosetr.video.hub.config;
+
+import java.util.Map;
+
+import org.reactivestreams.Publisher;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.util.MimeType;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Binary encodings selectable by {@code Accept}, besides JSON:
+ * {@code application/cbor}, {@code application/x-jackson-smile} (registered by
+ * Spring when Jackson Smile is on the classpath) and
+ * {@code application/x-protobuf}.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class CodecConfig implements WebFluxConfigurer {
+
+	private final ObjectMapper objectMapper;
+
+	@Override
+	public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+		// Custom codecs are consulted before the defaults, JSON has to stay first
+		// to remain the answer to Accept: */*
+		configurer.customCodecs()
+				.register(new Jackson2JsonEncoder(objectMapper));
+		configurer.customCodecs()
+				.register(new Jackson2CborDecoder());
+		configurer.customCodecs()
+				.register(new StreamingCborEncoder());
+		configurer.customCodecs()
+				.register(new VideoProtobufEncoder());
+	}
+
+	/**
+	 * Spring's CBOR encoder only implements {@code encodeValue}, so single
+	 * values are encoded directly and streams as one indefinite-length CBOR
+	 * array, written item by item as they arrive.
+	 */
+	private static class StreamingCborEncoder extends Jackson2CborEncoder {
+
+		private static final byte[] ARRAY_START = { (byte) 0x9F };
+		private static final byte[] ARRAY_END = { (byte) 0xFF };
+
+		@Override
+		public Flux<DataBuffer> encode(
+				Publisher<?> inputStream, DataBufferFactory bufferFactory, ResolvableType elementType,
+				MimeType mimeType, Map<String, Object> hints
+		) {
+			if (inputStream instanceof Mono) {
+				return Mono.from(inputStream)
+						.map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints))
+						.flux();
+			}
+
+			return Flux.concat(
+					Mono.fromSupplier(() -> bufferFactory.wrap(ARRAY_START)),
+					Flux.from(inputStream)
+							.map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints)),
+					Mono.fromSupplier(() -> bufferFactory.wrap(ARRAY_END))
+			);
+		}
+	}
+}
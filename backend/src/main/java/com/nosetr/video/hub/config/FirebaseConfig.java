@@ -1,21 +1,25 @@
 package com.nosetr.video.hub.config;
 
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.util.ResourceUtils;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ClassPathResource;
 
 import com.google.auth.oauth2.GoogleCredentials;
+import com.google.cloud.firestore.Firestore;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
 import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.cloud.FirestoreClient;
 
 /**
- * Configuration class to initialize the Firebase Admin SDK.
+ * Configuration class to initialize the Firebase Admin SDK. The clients are
+ * created on first use, {@link FirebaseStartup} decides when that is.
  */
 @Configuration
 public class FirebaseConfig {
@@ -24,18 +28,21 @@ public class FirebaseConfig {
 	private String firebaseKey;
 
 	@Bean
+	@Lazy
 	public FirebaseApp initializeFirebase() throws IOException {
 
-		File file = ResourceUtils.getFile("classpath:config/firebase-service-account.json");
+		// Read as a stream, the file is not on the file system when running from the jar
+		try (
+				InputStream serviceAccount = new ClassPathResource("config/firebase-service-account.json")
+						.getInputStream()
+		) {
+			FirebaseOptions options = FirebaseOptions.builder()
+					.setCredentials(GoogleCredentials.fromStream(serviceAccount))
+					.build();
 
-		FileInputStream serviceAccount = new FileInputStream(file);
-
-		FirebaseOptions options = FirebaseOptions.builder()
-				.setCredentials(GoogleCredentials.fromStream(serviceAccount))
-				.build();
-
-		return (FirebaseApp.getApps()
-				.isEmpty()) ? FirebaseApp.initializeApp(options) : FirebaseApp.getInstance();
+			return (FirebaseApp.getApps()
+					.isEmpty()) ? FirebaseApp.initializeApp(options) : FirebaseApp.getInstance();
+		}
 	}
 
 	/**
@@ -43,7 +50,15 @@ public class FirebaseConfig {
 	 * This ensures that FirebaseAuth can be injected into other classes.
 	 */
 	@Bean
+	@Lazy
 	public FirebaseAuth firebaseAuth(FirebaseApp firebaseApp) {
 		return FirebaseAuth.getInstance(firebaseApp);
 	}
+
+	@Bean
+	@Lazy
+	@Profile("!memory & !file")
+	public Firestore firestore(FirebaseApp firebaseApp) {
+		return FirestoreClient.getFirestore(firebaseApp);
+	}
 }
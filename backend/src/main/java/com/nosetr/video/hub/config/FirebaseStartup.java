@@ -0,0 +1,103 @@
+package com.nosetr.video.hub.config;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.cloud.firestore.Firestore;
+import com.google.firebase.auth.FirebaseAuth;
+import com.nosetr.video.hub.repository.VideoRepository;
+import com.nosetr.video.hub.util.VideoFields;
+import com.nosetr.video.hub.view.VideoView;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates the Firebase clients. By default before the server starts, like any
+ * other bean. With {@code firebase.lazy-init} it happens on a background thread
+ * while the server starts, so pods accept traffic sooner; requests arriving
+ * before that wait for the client they need. The view is started afterwards.
+ */
+@Slf4j
+@Component
+public class FirebaseStartup implements SmartInitializingSingleton {
+
+	private static final Duration WARM_UP_TIMEOUT = Duration.ofSeconds(30);
+
+	private final ObjectProvider<FirebaseAuth> firebaseAuth;
+	private final ObjectProvider<Firestore> firestore;
+	private final VideoRepository videoRepository;
+	private final VideoView videoView;
+	private final boolean lazyInit;
+	private final boolean warmUp;
+
+	public FirebaseStartup(
+			ObjectProvider<FirebaseAuth> firebaseAuth, ObjectProvider<Firestore> firestore,
+			VideoRepository videoRepository, VideoView videoView,
+			@Value("${firebase.lazy-init:false}") boolean lazyInit, @Value("${firebase.warm-up:false}") boolean warmUp
+	) {
+		this.firebaseAuth = firebaseAuth;
+		this.firestore = firestore;
+		this.videoRepository = videoRepository;
+		this.videoView = videoView;
+		this.lazyInit = lazyInit;
+		this.warmUp = warmUp;
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		if (!lazyInit) {
+			initialize();
+			return;
+		}
+
+		Thread.ofPlatform()
+				.name("firebase-startup")
+				.daemon()
+				.start(() -> {
+					try {
+						initialize();
+						videoView.start();
+					} catch (RuntimeException e) {
+						log.error("IN FirebaseStartup - lazy initialization failed: {}", e.getMessage());
+					}
+				});
+	}
+
+	private void initialize() {
+		long start = System.nanoTime();
+
+		// The bean factory creates one bean at a time, the parallel part is the I/O of the warm-up
+		CompletableFuture.allOf(
+				CompletableFuture.runAsync(firebaseAuth::getObject),
+				CompletableFuture.runAsync(() -> {
+					firestore.getIfAvailable();
+					if (warmUp) { warmUp(); }
+				})
+		)
+				.join();
+
+		log.info(
+				"IN FirebaseStartup - Firebase clients ready in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+		);
+	}
+
+	/**
+	 * One cheap read, so the channel and the access token are in place before
+	 * the first request.
+	 */
+	private void warmUp() {
+		try {
+			videoRepository.findPage(1, null, Set.of(VideoFields.ID))
+					.block(WARM_UP_TIMEOUT);
+		} catch (RuntimeException e) {
+			log.error("IN FirebaseStartup - warm-up failed: {}", e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,123 @@
+package com.nosetr.video.hub.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.nosetr.video.hub.repository.VideoWritePipeline;
+import com.nosetr.video.hub.service.TokenVerificationService;
+import com.nosetr.video.hub.util.InstrumentedExecutorService;
+import com.nosetr.video.hub.view.VideoFeed;
+import com.nosetr.video.hub.view.VideoView;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Gauges and counters of the executors, caches and queues. Latencies of
+ * Firebase calls are recorded by {@link com.nosetr.video.hub.util.FirebaseMetrics},
+ * those of the endpoints by Actuator ({@code http.server.requests}).
+ */
+@Configuration
+public class MetricsConfig {
+
+	@Bean
+	public MeterBinder firebaseExecutorMetrics(InstrumentedExecutorService firebaseExecutor) {
+		return registry -> {
+			Gauge.builder("firebase.executor.queued", firebaseExecutor, InstrumentedExecutorService::getQueuedTasks)
+					.description("Firebase tasks waiting for a thread")
+					.register(registry);
+			Gauge.builder("firebase.executor.active", firebaseExecutor, InstrumentedExecutorService::getActiveTasks)
+					.description("Firebase tasks running")
+					.register(registry);
+			FunctionCounter
+					.builder("firebase.executor.completed", firebaseExecutor, InstrumentedExecutorService::getCompletedTasks)
+					.register(registry);
+			FunctionCounter
+					.builder("firebase.executor.rejected", firebaseExecutor, InstrumentedExecutorService::getRejectedTasks)
+					.register(registry);
+		};
+	}
+
+	@Bean
+	public MeterBinder tokenCacheMetrics(TokenVerificationService tokenVerificationService) {
+		return registry -> {
+			Gauge.builder("auth.token.cache.size", tokenVerificationService, TokenVerificationService::cacheSize)
+					.register(registry);
+			FunctionCounter
+					.builder(
+							"auth.token.cache.requests", tokenVerificationService, service -> service.cacheStats()
+									.hitCount()
+					)
+					.tag("result", "hit")
+					.register(registry);
+			FunctionCounter
+					.builder(
+							"auth.token.cache.requests", tokenVerificationService, service -> service.cacheStats()
+									.missCount()
+					)
+					.tag("result", "miss")
+					.register(registry);
+			FunctionCounter
+					.builder(
+							"auth.token.cache.evictions", tokenVerificationService, service -> service.cacheStats()
+									.evictionCount()
+					)
+					.register(registry);
+		};
+	}
+
+	@Bean
+	public MeterBinder videoWriteMetrics(VideoWritePipeline videoWritePipeline) {
+		return registry -> {
+			Gauge.builder("videos.write.queued", videoWritePipeline, VideoWritePipeline::getQueueDepth)
+					.description("Video writes waiting for a batch")
+					.register(registry);
+			Gauge.builder("videos.write.in.flight", videoWritePipeline, VideoWritePipeline::getInFlight)
+					.description("Video write batches in flight")
+					.register(registry);
+			FunctionCounter.builder("videos.write.writes", videoWritePipeline, VideoWritePipeline::getCompleted)
+					.tag("result", "completed")
+					.register(registry);
+			FunctionCounter.builder("videos.write.writes", videoWritePipeline, VideoWritePipeline::getFailed)
+					.tag("result", "failed")
+					.register(registry);
+			FunctionCounter.builder("videos.write.writes", videoWritePipeline, VideoWritePipeline::getRejected)
+					.tag("result", "rejected")
+					.register(registry);
+			FunctionTimer
+					.builder(
+							"videos.write.flushes", videoWritePipeline, VideoWritePipeline::getFlushes,
+							VideoWritePipeline::getFlushNanos, TimeUnit.NANOSECONDS
+					)
+					.register(registry);
+		};
+	}
+
+	@Bean
+	public MeterBinder videoViewMetrics(VideoView videoView) {
+		return registry -> {
+			Gauge.builder("videos.view.ready", videoView, view -> view.isReady() ? 1 : 0)
+					.register(registry);
+			Gauge.builder(
+					"videos.view.size", videoView, view -> view.getAll()
+							.size()
+			)
+					.register(registry);
+		};
+	}
+
+	@Bean
+	public MeterBinder videoFeedMetrics(VideoFeed videoFeed) {
+		return registry -> {
+			Gauge.builder("videos.feed.subscribers", videoFeed, VideoFeed::getSubscriberCount)
+					.register(registry);
+			FunctionCounter.builder("videos.feed.dropped", videoFeed, VideoFeed::getDropped)
+					.description("Events dropped for slow subscribers")
+					.register(registry);
+		};
+	}
+}
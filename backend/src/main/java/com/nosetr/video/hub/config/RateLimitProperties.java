@@ -0,0 +1,39 @@
+package com.nosetr.video.hub.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Token buckets per route ({@code rate-limit.routes}), each keyed by the
+ * authenticated user or by the client address.
+ */
+@Data
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+	private boolean enabled = true;
+	// Buckets kept per route, idle ones are evicted first
+	private long maxKeys = 100_000;
+	private List<Route> routes = new ArrayList<>();
+
+	@Data
+	public static class Route {
+
+		private String method = "POST";
+		// Spring path pattern, e.g. /api/video/{videoId}
+		private String path;
+		private KeyType key = KeyType.PRINCIPAL;
+		// Burst size
+		private int capacity = 10;
+		private double refillPerSecond = 1;
+
+	}
+
+	public enum KeyType {
+		PRINCIPAL, IP
+	}
+}
@@ -0,0 +1,60 @@
+package com.nosetr.video.hub.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import com.nosetr.video.hub.util.InstrumentedExecutorService;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Configuration of the execution layer used for all Firebase SDK calls, so
+ * blocking calls and future callbacks never run on the WebFlux event loops.
+ */
+@Slf4j
+@Configuration
+public class SchedulerConfig {
+
+	@Bean(destroyMethod = "shutdown")
+	public InstrumentedExecutorService firebaseExecutor(
+			@Value("${firebase.scheduler.type:bounded}") String type,
+			@Value("${firebase.scheduler.max-threads:64}") int maxThreads,
+			@Value("${firebase.scheduler.queue-capacity:10000}") int queueCapacity
+	) {
+		ExecutorService delegate;
+
+		if ("virtual".equals(type)) {
+			delegate = Executors.newThreadPerTaskExecutor(
+					Thread.ofVirtual()
+							.name("firebase-", 0)
+							.factory()
+			);
+			log.info("IN firebaseExecutor - using virtual threads");
+		} else {
+			ThreadPoolExecutor pool = new ThreadPoolExecutor(
+					maxThreads, maxThreads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(queueCapacity),
+					new CustomizableThreadFactory("firebase-")
+			);
+			pool.allowCoreThreadTimeOut(true);
+			delegate = pool;
+			log.info("IN firebaseExecutor - using {} threads, queue capacity {}", maxThreads, queueCapacity);
+		}
+
+		return new InstrumentedExecutorService(delegate);
+	}
+
+	@Bean(destroyMethod = "dispose")
+	public Scheduler firebaseScheduler(InstrumentedExecutorService firebaseExecutor) {
+		return Schedulers.fromExecutorService(firebaseExecutor, "firebase");
+	}
+}
@@ -1,6 +1,7 @@
 package com.nosetr.video.hub.config;
 
 import java.security.Principal;
+import java.util.List;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,27 +13,32 @@ import org.springframework.security.config.annotation.web.reactive.EnableWebFlux
 import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
 import org.springframework.security.web.server.authentication.ServerAuthenticationConverter;
 import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
 
-import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseAuthException;
-import com.google.firebase.auth.FirebaseToken;
+import com.nosetr.video.hub.service.TokenVerificationService;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Mono;
 
 @Slf4j
 @Configuration
 @EnableWebFluxSecurity
+@RequiredArgsConstructor
 public class SecurityConfig {
 
 	private static final String BEARER_PREFIX = "Bearer ";
+	private static final String ADMIN_ROLE = "ADMIN";
+
+	private final TokenVerificationService tokenVerificationService;
 
 	@Bean
 	public SecurityWebFilterChain filterChain(ServerHttpSecurity http) {
@@ -43,6 +49,13 @@ public class SecurityConfig {
 						exchange -> exchange
 								.pathMatchers(HttpMethod.OPTIONS)
 								.permitAll()
+								.pathMatchers("/livez", "/readyz") // probes
+								.permitAll()
+								// Actuator is only served on the internal management port
+								.pathMatchers("/actuator/health/**", "/actuator/prometheus")
+								.permitAll()
+								.pathMatchers(HttpMethod.POST, "/api/register/batch") // bulk imports create accounts unchecked
+								.hasRole(ADMIN_ROLE)
 								.anyExchange() // all other routes are not public
 								.authenticated()
 				)
@@ -80,20 +93,18 @@ public class SecurityConfig {
 		return authentication -> {
 			String idToken = authentication.getCredentials()
 					.toString();
-			try {
-				FirebaseToken decodedToken = FirebaseAuth.getInstance()
-						.verifyIdToken(idToken);
 
-				CustomPrincipal principal = new CustomPrincipal(
-						decodedToken.getUid(), decodedToken.getEmail()
-				);
-
-				Authentication auth = new UsernamePasswordAuthenticationToken(principal, decodedToken, null);
-				return Mono.just(auth);
-			} catch (FirebaseAuthException e) {
-				log.error("IN authenticationManager - FirebaseAuthException: {}", e.getMessage());
-				return Mono.error(new SecurityException("Invalid token"));
-			}
+			return tokenVerificationService.verify(idToken)
+					.map(
+							principal -> (Authentication) new UsernamePasswordAuthenticationToken(
+									principal, idToken,
+									principal.isAdmin() ? List.of(new SimpleGrantedAuthority("ROLE_" + ADMIN_ROLE)) : List.of()
+							)
+					)
+					.onErrorMap(FirebaseAuthException.class, e -> {
+						log.error("IN authenticationManager - FirebaseAuthException: {}", e.getMessage());
+						return new SecurityException("Invalid token");
+					});
 		};
 	}
 
@@ -117,5 +128,6 @@ public class SecurityConfig {
 	public static class CustomPrincipal implements Principal {
 		private String id;
 		private String name; // as email
+		private boolean admin; // from the token's admin claim
 	}
 }
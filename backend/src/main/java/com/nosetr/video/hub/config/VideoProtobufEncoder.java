@@ -0,0 +1,182 @@
+package com.nosetr.video.hub.config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.util.MimeType;
+
+import com.google.protobuf.Message;
+import com.nosetr.video.hub.dto.ScoreDto;
+import com.nosetr.video.hub.dto.VideoPageDto;
+import com.nosetr.video.hub.dto.VideoResponseDto;
+import com.nosetr.video.hub.dto.VideoSummaryDto;
+import com.nosetr.video.hub.proto.Score;
+import com.nosetr.video.hub.proto.Video;
+import com.nosetr.video.hub.proto.VideoPage;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Writes the video DTOs as the Protobuf messages generated from
+ * {@code src/main/protobuf/video_hub.proto}. Single objects are written as one
+ * message, lists and streams as length-delimited messages.
+ */
+public class VideoProtobufEncoder implements Encoder<Object> {
+
+	public static final MimeType PROTOBUF = new MimeType("application", "x-protobuf");
+
+	private static final List<Class<?>> MESSAGES = List.of(
+			VideoResponseDto.class, VideoSummaryDto.class, VideoPageDto.class, ScoreDto.class
+	);
+
+	@Override
+	public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+		if (mimeType != null && !PROTOBUF.isCompatibleWith(mimeType)) { return false; }
+
+		// Claiming Object without a mime type makes Spring treat this as a general
+		// object encoder, ordered after JSON which stays the default for Accept: */*.
+		// For an actual Protobuf response only the message types qualify, anything
+		// else (e.g. Mono<Object>) is answered with 406.
+		if (elementType.toClass() == Object.class) { return mimeType == null; }
+
+		Class<?> type = List.class.isAssignableFrom(elementType.toClass())
+				? elementType.getGeneric(0)
+						.toClass()
+				: elementType.toClass();
+		return MESSAGES.contains(type);
+	}
+
+	@Override
+	public Flux<DataBuffer> encode(
+			Publisher<?> inputStream, DataBufferFactory bufferFactory, ResolvableType elementType,
+			MimeType mimeType, Map<String, Object> hints
+	) {
+		boolean delimited = !(inputStream instanceof Mono);
+
+		return Flux.from(inputStream)
+				.map(value -> bufferFactory.wrap(toBytes(value, delimited)));
+	}
+
+	@Override
+	public DataBuffer encodeValue(
+			Object value, DataBufferFactory bufferFactory, ResolvableType valueType, MimeType mimeType,
+			Map<String, Object> hints
+	) {
+		return bufferFactory.wrap(toBytes(value, false));
+	}
+
+	@Override
+	public List<MimeType> getEncodableMimeTypes() {
+		return List.of(PROTOBUF);
+	}
+
+	private static byte[] toBytes(Object value, boolean delimited) {
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+			if (value instanceof List<?> list) {
+				for (Object element : list) {
+					message(element).writeDelimitedTo(bytes);
+				}
+			} else if (delimited) {
+				message(value).writeDelimitedTo(bytes);
+			} else {
+				message(value).writeTo(bytes);
+			}
+
+			return bytes.toByteArray();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static Message message(Object value) {
+		return switch (value) {
+			case VideoResponseDto video -> video(video);
+			case VideoSummaryDto summary -> summary(summary);
+			case VideoPageDto page -> page(page);
+			case ScoreDto score -> score(score);
+			default -> throw new IllegalArgumentException("Not a Protobuf message: " + value.getClass());
+		};
+	}
+
+	private static Video video(VideoResponseDto video) {
+		Video.Builder message = Video.newBuilder();
+
+		set(video.getId(), message::setId);
+		set(video.getUserId(), message::setUserId);
+		set(video.getTitle(), message::setTitle);
+		set(video.getDay(), message::setDay);
+		set(video.getFrom(), message::setFrom);
+		set(video.getTill(), message::setTill);
+		if (video.getRatings() != null) {
+			for (ScoreDto score : video.getRatings()) {
+				message.addRatings(score(score));
+			}
+		}
+		set(video.getCreator(), message::setCreator);
+		message.setRatingCount(video.getRatingCount())
+				.setRatingSum(video.getRatingSum())
+				.setAverageRating(video.getAverageRating());
+		set(video.getIsoYear(), message::setIsoYear);
+		set(video.getIsoWeek(), message::setIsoWeek);
+		set(video.getEpochDay(), message::setEpochDay);
+		set(video.getFromMinute(), message::setFromMinute);
+		set(video.getTillMinute(), message::setTillMinute);
+		return message.build();
+	}
+
+	/**
+	 * A summary is a Video message with only the summary fields.
+	 */
+	private static Video summary(VideoSummaryDto summary) {
+		Video.Builder message = Video.newBuilder();
+
+		set(summary.getId(), message::setId);
+		set(summary.getTitle(), message::setTitle);
+		set(summary.getDay(), message::setDay);
+		set(summary.getFrom(), message::setFrom);
+		set(summary.getTill(), message::setTill);
+		message.setRatingCount(summary.getRatingCount())
+				.setAverageRating(summary.getAverageRating());
+		return message.build();
+	}
+
+	private static VideoPage page(VideoPageDto page) {
+		VideoPage.Builder message = VideoPage.newBuilder();
+
+		if (page.getItems() != null) {
+			for (VideoResponseDto video : page.getItems()) {
+				message.addItems(video(video));
+			}
+		}
+		set(page.getNextCursor(), message::setNextCursor);
+		return message.build();
+	}
+
+	private static Score score(ScoreDto score) {
+		Score.Builder message = Score.newBuilder();
+
+		set(score.getVoter(), message::setVoter);
+		set(score.getScore(), message::setScore);
+		set(score.getText(), message::setText);
+		return message.build();
+	}
+
+	/**
+	 * The generated setters reject {@code null}, an absent value is left unset.
+	 */
+	private static <T> void set(T value, Consumer<T> setter) {
+		if (value != null) { setter.accept(value); }
+	}
+}
@@ -1,27 +1,35 @@
 package com.nosetr.video.hub.controller;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
+import java.util.Map;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.google.firebase.auth.FirebaseAuthException;
 import com.nosetr.video.hub.config.SecurityConfig.CustomPrincipal;
+import com.nosetr.video.hub.dto.BatchItemResultDto;
 import com.nosetr.video.hub.dto.ScoreDto;
+import com.nosetr.video.hub.dto.UserStatsDto;
 import com.nosetr.video.hub.dto.VideoDto;
+import com.nosetr.video.hub.dto.VideoEventDto;
+import com.nosetr.video.hub.dto.VideoPageDto;
 import com.nosetr.video.hub.dto.VideoResponseDto;
+import com.nosetr.video.hub.dto.VideoSummaryDto;
 import com.nosetr.video.hub.dto.UserDto;
+import com.nosetr.video.hub.dto.YearStatsDto;
 import com.nosetr.video.hub.service.VideoService;
 import com.nosetr.video.hub.service.UserService;
+import com.nosetr.video.hub.util.VideoValidator;
 
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
@@ -43,33 +51,77 @@ public class ApiController {
 		return Mono.just(customPrincipal);
 	}
 
+	@GetMapping("/user/{userId}/videos")
+	public Mono<List<VideoResponseDto>> getUserVideos(@PathVariable String userId) {
+		return videoService.getVideosByUser(userId);
+	}
+
+	@GetMapping("/user/{userId}/stats")
+	public Mono<UserStatsDto> getUserStats(@PathVariable String userId) {
+		return videoService.getUserStats(userId);
+	}
+
 	@PostMapping("/register")
 	public Mono<UserDto> register(@RequestBody @NotNull UserDto userDto) throws FirebaseAuthException {
 		// Call registrations service
 		return userService.createUser(userDto);
 	}
 
+	/**
+	 * Accepts a JSON array or an NDJSON stream of users, with a password or a
+	 * bcrypt password hash, and returns one result per user, in request order.
+	 * Admins only.
+	 */
+	@PostMapping(value = "/register/batch", consumes = {
+			MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE
+	})
+	public Flux<BatchItemResultDto> registerUsers(@RequestBody Flux<UserDto> userDtos) {
+		return userService.importUsers(userDtos);
+	}
+
 	@PostMapping("/video")
 	public Mono<ResponseEntity<String>> saveVideo(
 			@RequestBody VideoDto videoDto, Authentication authentication
 	) {
 
-		Date today = new Date();
-		SimpleDateFormat formattedDate = new SimpleDateFormat("yyyy-MM-dd");
-		String formatToday = formattedDate.format(today);
-
-		if (
-			videoDto.getDay()
-					.compareTo(formatToday) > 0
-		) {
+		String error = VideoValidator.validate(videoDto);
+		if (error != null) {
 			return Mono.just(
 					ResponseEntity.badRequest()
-							.body("The date can not be after today")
+							.body(error)
 			); // 400 Bad Request
 		}
 
 		CustomPrincipal customPrincipal = (CustomPrincipal) authentication.getPrincipal();
+
+		return videoService.setVideo(withOwner(videoDto, customPrincipal));
+	}
+
+	/**
+	 * Accepts a JSON array or an NDJSON stream of videos and returns one result
+	 * per video, in request order.
+	 */
+	@PostMapping(value = "/video/batch", consumes = {
+			MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE
+	})
+	public Flux<BatchItemResultDto> saveVideos(
+			@RequestBody Flux<VideoDto> videoDtos, Authentication authentication
+	) {
+		CustomPrincipal customPrincipal = (CustomPrincipal) authentication.getPrincipal();
+
+		return videoService.setVideos(videoDtos.map(videoDto -> withOwner(videoDto, customPrincipal)));
+	}
+
+	/**
+	 * Sets the owner and drops whatever ratings the client sent: a new video
+	 * starts without ratings, they are only added through the rating endpoint.
+	 */
+	private static VideoDto withOwner(VideoDto videoDto, CustomPrincipal customPrincipal) {
 		videoDto.setCreator(customPrincipal.getId());
+		videoDto.setRatings(null);
+		videoDto.setRatingCount(0);
+		videoDto.setRatingSum(0);
+		videoDto.setAverageRating(0);
 
 		if (
 			videoDto.getUserId() == null || videoDto.getUserId()
@@ -77,14 +129,60 @@ public class ApiController {
 		)
 			videoDto.setUserId(customPrincipal.getId());
 
-		return videoService.setVideo(videoDto);
+		return videoDto;
 	}
 
 	@GetMapping("/video")
-	public Flux<VideoResponseDto> getVideoList() throws InterruptedException, ExecutionException {
+	public Flux<VideoResponseDto> getVideoList() {
 		return videoService.getAll();
 	}
 
+	/**
+	 * Sparse fieldset, e.g. {@code ?fields=title,day,averageRating}. The id is
+	 * always included.
+	 */
+	@GetMapping(value = "/video", params = { "fields", "!limit" }, produces = MediaType.APPLICATION_JSON_VALUE)
+	public Flux<Map<String, Object>> getVideoList(@RequestParam List<String> fields) {
+		return videoService.getAll(fields);
+	}
+
+	@GetMapping("/video/search")
+	public Mono<List<VideoResponseDto>> searchVideos(
+			@RequestParam String q, @RequestParam(defaultValue = "20") int limit
+	) {
+		return videoService.search(q, limit);
+	}
+
+	@GetMapping("/video/summary")
+	public Flux<VideoSummaryDto> getVideoSummaries() {
+		return videoService.getAllSummaries();
+	}
+
+	@GetMapping(value = "/video", params = "limit", produces = {
+			MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, "application/x-jackson-smile",
+			"application/x-protobuf"
+	})
+	public Mono<VideoPageDto> getVideoPage(
+			@RequestParam int limit, @RequestParam(required = false) String cursor
+	) {
+		return videoService.getPage(limit, cursor);
+	}
+
+	@GetMapping(value = "/video", produces = {
+			MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE
+	})
+	public Flux<VideoResponseDto> streamVideoList(@RequestParam(defaultValue = "100") int pageSize) {
+		return videoService.streamAll(pageSize);
+	}
+
+	/**
+	 * Server-Sent Events of video creations and rating changes, starting now.
+	 */
+	@GetMapping(value = "/video/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public Flux<ServerSentEvent<VideoEventDto>> streamVideoEvents() {
+		return videoService.streamEvents();
+	}
+
 	@PostMapping("/video/{videoId}")
 	public Mono<Object> addRating(
 			@PathVariable String videoId, @RequestBody ScoreDto scoreDto, Authentication authentication
@@ -99,8 +197,51 @@ public class ApiController {
 	}
 
 	@GetMapping("/by-week/{year}/{week}")
-	public Mono<List<VideoResponseDto>> getVideosForWeek(@PathVariable int year, @PathVariable int week)
-			throws InterruptedException, ExecutionException {
+	public Mono<List<VideoResponseDto>> getVideosForWeek(@PathVariable int year, @PathVariable int week) {
 		return videoService.getVideosForWeek(week, year);
 	}
+
+	@GetMapping(value = "/by-week/{year}/{week}", params = "fields")
+	public Mono<List<Map<String, Object>>> getVideosForWeek(
+			@PathVariable int year, @PathVariable int week, @RequestParam List<String> fields
+	) {
+		return videoService.getVideosForWeek(week, year, fields);
+	}
+
+	@GetMapping("/by-week/{year}/{week}/summary")
+	public Mono<List<VideoSummaryDto>> getSummariesForWeek(@PathVariable int year, @PathVariable int week) {
+		return videoService.getSummariesForWeek(week, year);
+	}
+
+	@GetMapping("/by-day/{day}")
+	public Mono<List<VideoResponseDto>> getVideosForTimeRange(
+			@PathVariable String day, @RequestParam(required = false) String from,
+			@RequestParam(required = false) String till
+	) {
+		return videoService.getVideosForTimeRange(day, from, till);
+	}
+
+	@GetMapping("/leaderboard")
+	public Mono<List<VideoResponseDto>> getLeaderboard(@RequestParam(defaultValue = "10") int limit) {
+		return videoService.getTopVideos(null, null, limit);
+	}
+
+	@GetMapping("/leaderboard/{year}")
+	public Mono<List<VideoResponseDto>> getLeaderboardForYear(
+			@PathVariable int year, @RequestParam(defaultValue = "10") int limit
+	) {
+		return videoService.getTopVideos(year, null, limit);
+	}
+
+	@GetMapping("/leaderboard/{year}/{week}")
+	public Mono<List<VideoResponseDto>> getLeaderboardForWeek(
+			@PathVariable int year, @PathVariable int week, @RequestParam(defaultValue = "10") int limit
+	) {
+		return videoService.getTopVideos(year, week, limit);
+	}
+
+	@GetMapping("/stats/{year}")
+	public Mono<YearStatsDto> getYearStats(@PathVariable int year) {
+		return videoService.getYearStats(year);
+	}
 }
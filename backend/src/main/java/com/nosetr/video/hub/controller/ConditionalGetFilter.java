@@ -0,0 +1,96 @@
+package com.nosetr.video.hub.controller;
+
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import com.nosetr.video.hub.view.VideoCollectionVersion;
+import com.nosetr.video.hub.view.VideoView;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * ETags for the video read endpoints, derived from the
+ * {@link VideoCollectionVersion}. A matching {@code If-None-Match} is answered
+ * with 304 before the controller runs. Only active while the {@link VideoView}
+ * is serving, as only then every change of the collection is seen by this
+ * instance.
+ * <p>
+ * No Last-Modified: its one second resolution would answer 304 for changes
+ * within the same second. The ETags are weak, as the response may still be
+ * compressed (or not) after this filter.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConditionalGetFilter implements WebFilter {
+
+	private static final List<String> PATHS = List.of(
+			"/api/video", "/api/by-week/", "/api/by-day/", "/api/leaderboard", "/api/stats/"
+	);
+	// Only serves event streams, whatever the Accept header
+	private static final String EVENT_STREAM_PATH = "/api/video/stream";
+
+	private final VideoView videoView;
+	private final VideoCollectionVersion collectionVersion;
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		ServerHttpRequest request = exchange.getRequest();
+
+		if (request.getMethod() != HttpMethod.GET || !videoView.isReady() || !isVideoRead(request)) {
+			return chain.filter(exchange);
+		}
+
+		// Read before the query runs, a concurrent change at worst causes one extra 200
+		String etag = "W/\"" + collectionVersion.current() + "-" + variant(request) + "\"";
+
+		if (exchange.checkNotModified(etag)) {
+			return exchange.getResponse()
+					.setComplete(); // 304 Not Modified
+		}
+
+		return chain.filter(exchange);
+	}
+
+	private static boolean isVideoRead(ServerHttpRequest request) {
+		String path = request.getPath()
+				.value();
+		if (
+			path.equals(EVENT_STREAM_PATH) || PATHS.stream()
+					.noneMatch(path::startsWith)
+		) { return false; }
+
+		// Event streams never complete, there is nothing to revalidate
+		return !request.getHeaders()
+				.getAccept()
+				.contains(MediaType.TEXT_EVENT_STREAM);
+	}
+
+	/**
+	 * Distinguishes the representations (path, query and media type) sharing a version.
+	 */
+	private static String variant(ServerHttpRequest request) {
+		int hash = request.getURI()
+				.getRawPath()
+				.hashCode();
+		hash = 31 * hash + String.valueOf(
+				request.getURI()
+						.getRawQuery()
+		)
+				.hashCode();
+		hash = 31 * hash + String.valueOf(
+				request.getHeaders()
+						.getFirst(HttpHeaders.ACCEPT)
+		)
+				.hashCode();
+		return Integer.toHexString(hash);
+	}
+}
@@ -0,0 +1,51 @@
+package com.nosetr.video.hub.controller;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Logs and publishes the time from JVM start until the first response of any
+ * kind was written (health probes included), the cold start a scaled-up pod
+ * really pays.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class FirstRequestFilter implements WebFilter {
+
+	private final MeterRegistry meterRegistry;
+	private final AtomicBoolean served = new AtomicBoolean();
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		if (served.get()) { return chain.filter(exchange); }
+
+		return chain.filter(exchange)
+				.doFinally(signal -> {
+					if (!served.compareAndSet(false, true)) { return; }
+
+					long millis = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean()
+							.getStartTime();
+					log.info("IN FirstRequestFilter - first request served {} ms after JVM start", millis);
+
+					TimeGauge.builder("application.first.request.time", () -> millis, TimeUnit.MILLISECONDS)
+							.description("Time from JVM start until the first request was served")
+							.register(meterRegistry);
+				});
+	}
+}
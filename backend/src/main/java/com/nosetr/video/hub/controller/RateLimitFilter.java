@@ -0,0 +1,131 @@
+package com.nosetr.video.hub.controller;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.nosetr.video.hub.config.RateLimitProperties;
+import com.nosetr.video.hub.config.RateLimitProperties.KeyType;
+import com.nosetr.video.hub.config.SecurityConfig.CustomPrincipal;
+import com.nosetr.video.hub.util.TokenBucketLimiter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Admission control for the routes in {@code rate-limit.routes}: requests over
+ * the route's rate get 429 with {@code Retry-After}. Runs after authentication,
+ * so buckets can be keyed by {@link CustomPrincipal#getId()}. Per-IP buckets
+ * use the remote address, which {@code server.forward-headers-strategy} sets
+ * from the trusted proxy's forwarded headers.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitFilter implements WebFilter {
+
+	private final List<LimitedRoute> routes;
+	private final MeterRegistry meterRegistry;
+
+	public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+		this.routes = !properties.isEnabled()
+				? List.of()
+				: properties.getRoutes()
+						.stream()
+						.map(route -> new LimitedRoute(route, properties.getMaxKeys()))
+						.toList();
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		LimitedRoute route = match(exchange.getRequest());
+		if (route == null) { return chain.filter(exchange); }
+
+		// Requests without a key (e.g. unauthenticated) are left to the security rules
+		return key(
+				exchange, route.config()
+						.getKey()
+		).map(
+				key -> route.limiter()
+						.tryAcquire(key)
+		)
+				.defaultIfEmpty(Duration.ZERO)
+				.flatMap(wait -> wait.isZero() ? chain.filter(exchange) : reject(exchange, route, wait));
+	}
+
+	private LimitedRoute match(ServerHttpRequest request) {
+		for (LimitedRoute route : routes) {
+			if (
+				route.method()
+						.equals(request.getMethod())
+						&& route.pattern()
+								.matches(request.getPath()
+										.pathWithinApplication())
+			) { return route; }
+		}
+		return null;
+	}
+
+	private static Mono<String> key(ServerWebExchange exchange, KeyType keyType) {
+		if (keyType == KeyType.IP) {
+			InetSocketAddress address = exchange.getRequest()
+					.getRemoteAddress();
+			return Mono.justOrEmpty(
+					(address == null) ? null
+							: address.getAddress() != null ? address.getAddress()
+									.getHostAddress() : address.getHostString()
+			);
+		}
+
+		return exchange.getPrincipal()
+				.filter(Authentication.class::isInstance)
+				.map(principal -> ((Authentication) principal).getPrincipal())
+				.filter(CustomPrincipal.class::isInstance)
+				.map(principal -> ((CustomPrincipal) principal).getId());
+	}
+
+	private Mono<Void> reject(ServerWebExchange exchange, LimitedRoute route, Duration wait) {
+		meterRegistry.counter(
+				"http.server.requests.rate.limited", "uri", route.config()
+						.getPath()
+		)
+				.increment();
+
+		long retryAfterSeconds = Math.max(1, (wait.toMillis() + 999) / 1000);
+
+		exchange.getResponse()
+				.setStatusCode(HttpStatus.TOO_MANY_REQUESTS); // 429 Too Many Requests
+		exchange.getResponse()
+				.getHeaders()
+				.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+		return exchange.getResponse()
+				.setComplete();
+	}
+
+	private record LimitedRoute(
+			RateLimitProperties.Route config, HttpMethod method, PathPattern pattern, TokenBucketLimiter limiter
+	) {
+
+		LimitedRoute(RateLimitProperties.Route config, long maxKeys) {
+			this(
+					config, HttpMethod.valueOf(config.getMethod()), PathPatternParser.defaultInstance.parse(config.getPath()),
+					new TokenBucketLimiter(config.getCapacity(), config.getRefillPerSecond(), maxKeys)
+			);
+		}
+	}
+}
@@ -0,0 +1,22 @@
+package com.nosetr.video.hub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result for one item of a batch request, in request order.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResultDto {
+
+	private long index;
+	private String id;
+	private int status;
+	private String message;
+
+}
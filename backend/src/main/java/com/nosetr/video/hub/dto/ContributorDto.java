@@ -0,0 +1,17 @@
+package com.nosetr.video.hub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContributorDto {
+
+	private String userId;
+	private long videos;
+
+}
@@ -14,5 +14,7 @@ public class UserDto {
 	private String id;
 	private String email;
 	private String password;
+	// Bcrypt hash instead of a password, only for bulk imports
+	private String passwordHash;
 	private boolean emailVerified;
 }
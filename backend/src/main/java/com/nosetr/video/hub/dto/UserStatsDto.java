@@ -0,0 +1,20 @@
+package com.nosetr.video.hub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserStatsDto {
+
+	private String userId;
+	private long videosPosted;
+	private long ratingsReceived;
+	private double averageRatingReceived;
+	private long votesCast;
+
+}
@@ -0,0 +1,24 @@
+package com.nosetr.video.hub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One change of the videos collection, as pushed by the live feed.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class VideoEventDto {
+
+	public enum Type {
+		CREATED, RATED, UPDATED, REMOVED
+	}
+
+	private Type type;
+	private VideoSummaryDto video;
+
+}
@@ -0,0 +1,23 @@
+package com.nosetr.video.hub.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One page of videos plus the opaque cursor for the next page
+ * ({@code null} when there are no more videos).
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class VideoPageDto {
+
+	private List<VideoResponseDto> items;
+	private String nextCursor;
+
+}
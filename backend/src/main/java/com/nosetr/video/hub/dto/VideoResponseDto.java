@@ -21,6 +21,14 @@ public class VideoResponseDto {
 	private String till;
 	private List<ScoreDto> ratings;
 	private String creator;
+	private long ratingCount;
+	private long ratingSum;
 	private double averageRating;
+	private Integer isoYear;
+	private Integer isoWeek;
+	private Long epochDay;
+	// from and till as minutes of the day, for range queries
+	private Integer fromMinute;
+	private Integer tillMinute;
 	
 }
@@ -0,0 +1,25 @@
+package com.nosetr.video.hub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What list screens show of a video: no ratings, voters or comments.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class VideoSummaryDto {
+
+	private String id;
+	private String title;
+	private String day;
+	private String from;
+	private String till;
+	private long ratingCount;
+	private double averageRating;
+
+}
@@ -0,0 +1,24 @@
+package com.nosetr.video.hub.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class WeekStatsDto {
+
+	private int isoWeek;
+	private long videoCount;
+	private long ratingCount;
+	private long ratingSum;
+	private double averageRating;
+	private long distinctVoters;
+	private List<ContributorDto> topContributors;
+
+}
@@ -0,0 +1,26 @@
+package com.nosetr.video.hub.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class YearStatsDto {
+
+	private int isoYear;
+	private long videoCount;
+	private long ratingCount;
+	private long ratingSum;
+	private double averageRating;
+	private long distinctVoters;
+	private List<ContributorDto> topContributors;
+	// Only the weeks with videos, in week order
+	private List<WeekStatsDto> weeks;
+
+}
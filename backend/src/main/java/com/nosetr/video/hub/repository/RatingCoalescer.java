@@ -0,0 +1,119 @@
+package com.nosetr.video.hub.repository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.nosetr.video.hub.dto.ScoreDto;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Optional aggregation window in front of {@link VideoRepository#addRatings}.
+ * Votes for the same video arriving within {@code window} (or until
+ * {@code maxBatchSize} votes) are applied in one write, instead of one
+ * transaction per vote on the same document. Each caller still gets the
+ * outcome of its own vote. When disabled, every vote is written on its own.
+ */
+@Slf4j
+@Component
+public class RatingCoalescer {
+
+	private final VideoRepository videoRepository;
+	private final boolean enabled;
+	private final Duration window;
+	private final int maxBatchSize;
+
+	private final Map<String, PendingBatch> batches = new ConcurrentHashMap<>();
+
+	public RatingCoalescer(
+			VideoRepository videoRepository, @Value("${videos.rating.coalesce.enabled:false}") boolean enabled,
+			@Value("${videos.rating.coalesce.window:20ms}") Duration window,
+			@Value("${videos.rating.coalesce.max-batch-size:50}") int maxBatchSize
+	) {
+		this.videoRepository = videoRepository;
+		this.enabled = enabled;
+		this.window = window;
+		// Every accepted vote writes a voter marker, stay well below the 500 writes per transaction
+		this.maxBatchSize = Math.min(Math.max(maxBatchSize, 1), 250);
+	}
+
+	public Mono<RatingOutcome> submit(String videoId, ScoreDto scoreDto) {
+		if (!enabled) { return videoRepository.addRating(videoId, scoreDto); }
+
+		return Mono.create(sink -> {
+			PendingVote vote = new PendingVote(scoreDto, sink);
+			PendingBatch[] full = new PendingBatch[1];
+
+			batches.compute(videoId, (id, batch) -> {
+				if (batch == null) {
+					PendingBatch opened = new PendingBatch();
+					Schedulers.parallel()
+							.schedule(() -> {
+								if (batches.remove(id, opened)) { flush(id, opened); }
+							}, window.toNanos(), TimeUnit.NANOSECONDS);
+					batch = opened;
+				}
+
+				batch.votes()
+						.add(vote);
+				if (
+					batch.votes()
+							.size() < maxBatchSize
+				) { return batch; }
+
+				full[0] = batch;
+				return null;
+			});
+
+			if (full[0] != null) { flush(videoId, full[0]); }
+		});
+	}
+
+	private void flush(String videoId, PendingBatch batch) {
+		List<PendingVote> votes = batch.votes();
+		List<ScoreDto> scoreDtos = votes.stream()
+				.map(PendingVote::scoreDto)
+				.toList();
+
+		// Deferred, so a call failing before it returns a Mono still completes every vote
+		Mono.defer(() -> videoRepository.addRatings(videoId, scoreDtos))
+				.subscribe(outcomes -> {
+					for (int i = 0; i < votes.size(); i++) {
+						votes.get(i)
+								.sink()
+								.success(outcomes.get(i));
+					}
+				}, e -> {
+					log.error("IN RatingCoalescer - failed to add {} ratings: {}", votes.size(), e.getMessage());
+					for (PendingVote vote : votes) {
+						vote.sink()
+								.error(e);
+					}
+				});
+	}
+
+	/**
+	 * Only modified inside {@code batches.compute}, read after it was removed.
+	 * Compared by identity, so the window's timer only removes its own batch.
+	 */
+	private static final class PendingBatch {
+
+		private final List<PendingVote> votes = new ArrayList<>();
+
+		List<PendingVote> votes() {
+			return votes;
+		}
+	}
+
+	private record PendingVote(ScoreDto scoreDto, MonoSink<RatingOutcome> sink) {}
+}
@@ -0,0 +1,5 @@
+package com.nosetr.video.hub.repository;
+
+public enum RatingOutcome {
+	ADDED, NOT_FOUND, OWN_VIDEO, ALREADY_VOTED
+}
@@ -0,0 +1,15 @@
+package com.nosetr.video.hub.repository;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.nosetr.video.hub.dto.VideoResponseDto;
+
+/**
+ * A stored or updated video, or a removed one ({@code video == null}).
+ */
+public record VideoDocumentChange(String id, VideoResponseDto video) {
+
+	@JsonIgnore
+	public boolean isRemoved() {
+		return video == null;
+	}
+}
@@ -0,0 +1,84 @@
+package com.nosetr.video.hub.repository;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import com.nosetr.video.hub.dto.ScoreDto;
+import com.nosetr.video.hub.dto.VideoDto;
+import com.nosetr.video.hub.dto.VideoResponseDto;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+/**
+ * Storage of the videos collection. The implementation is selected by Spring
+ * profile: Firestore (default), {@code memory} or {@code file}.
+ */
+public interface VideoRepository {
+
+	/**
+	 * Firestore's limit of writes per batch.
+	 */
+	int MAX_BATCH_SIZE = 500;
+
+	/**
+	 * Stores a new video and returns its generated id.
+	 */
+	Mono<String> save(VideoDto videoDto);
+
+	/**
+	 * Stores new videos in one batched write and returns their generated ids in
+	 * the same order. Batches are limited to {@link #MAX_BATCH_SIZE} videos.
+	 */
+	Mono<List<String>> saveAll(List<VideoDto> videoDtos);
+
+	/**
+	 * At most {@code limit} videos ordered by id, after {@code lastId}
+	 * ({@code null} for the first page).
+	 */
+	default Mono<List<VideoResponseDto>> findPage(int limit, String lastId) {
+		return findPage(limit, lastId, null);
+	}
+
+	/**
+	 * Like {@link #findPage(int, String)}, but only the given fields and the id
+	 * have to be read and populated ({@code null} for all fields).
+	 */
+	Mono<List<VideoResponseDto>> findPage(int limit, String lastId, Set<String> fields);
+
+	/**
+	 * Videos with {@code fromEpochDay <= epochDay <= toEpochDay}, ordered by day.
+	 */
+	default Mono<List<VideoResponseDto>> findByEpochDayBetween(long fromEpochDay, long toEpochDay) {
+		return findByEpochDayBetween(fromEpochDay, toEpochDay, null);
+	}
+
+	/**
+	 * Like {@link #findByEpochDayBetween(long, long)}, but only the given fields
+	 * and the id have to be read and populated ({@code null} for all fields).
+	 */
+	Mono<List<VideoResponseDto>> findByEpochDayBetween(long fromEpochDay, long toEpochDay, Set<String> fields);
+
+	/**
+	 * Atomically checks the vote and adds it to the rating aggregates of the video.
+	 */
+	default Mono<RatingOutcome> addRating(String videoId, ScoreDto scoreDto) {
+		return addRatings(videoId, List.of(scoreDto)).map(outcomes -> outcomes.get(0));
+	}
+
+	/**
+	 * Checks the votes in order and adds the accepted ones to the video in one
+	 * atomic write. Returns one outcome per vote, in the same order; a voter
+	 * appearing twice is {@link RatingOutcome#ALREADY_VOTED} the second time.
+	 */
+	Mono<List<RatingOutcome>> addRatings(String videoId, List<ScoreDto> scoreDtos);
+
+	/**
+	 * Delivers the current contents as the first batch, then every later change.
+	 * Batches are delivered one at a time, in order, until the returned handle
+	 * is disposed or {@code onError} has been called.
+	 */
+	Disposable listen(Consumer<List<VideoDocumentChange>> onChanges, Consumer<Throwable> onError);
+
+}
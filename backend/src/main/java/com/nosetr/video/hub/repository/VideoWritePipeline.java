@@ -0,0 +1,186 @@
+package com.nosetr.video.hub.repository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.nosetr.video.hub.dto.VideoDto;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * Bounded write-behind queue in front of {@link VideoRepository#saveAll}.
+ * Single writes are coalesced into batches, at most {@code maxInFlight}
+ * batches are written at a time, and writes are rejected with a
+ * {@link WriteQueueFullException} once {@code queueCapacity} writes are
+ * pending. Each caller completes only once its own write is durable. After
+ * {@link #stop()} writes fail with an {@link IllegalStateException}.
+ */
+@Slf4j
+@Component
+public class VideoWritePipeline {
+
+	private final VideoRepository videoRepository;
+	private final int queueCapacity;
+	private final int maxInFlight;
+	private final int maxBatchSize;
+	private final Duration maxDelay;
+	private final Duration retryAfter;
+
+	private final AtomicInteger queued = new AtomicInteger();
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final LongAdder completed = new LongAdder();
+	private final LongAdder failed = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+	private final LongAdder flushes = new LongAdder();
+	private final LongAdder flushNanos = new LongAdder();
+
+	private FluxSink<PendingWrite> sink;
+	private Disposable subscription;
+	// Submits hold the read lock, so no write is queued after the sink completed
+	private final ReadWriteLock lifecycle = new ReentrantReadWriteLock();
+	private boolean stopped;
+
+	public VideoWritePipeline(
+			VideoRepository videoRepository, @Value("${videos.write.queue-capacity:10000}") int queueCapacity,
+			@Value("${videos.write.max-in-flight:8}") int maxInFlight,
+			@Value("${videos.write.max-batch-size:100}") int maxBatchSize,
+			@Value("${videos.write.max-delay:5ms}") Duration maxDelay,
+			@Value("${videos.write.retry-after:1s}") Duration retryAfter
+	) {
+		this.videoRepository = videoRepository;
+		this.queueCapacity = queueCapacity;
+		this.maxInFlight = Math.max(maxInFlight, 1);
+		this.maxBatchSize = Math.min(Math.max(maxBatchSize, 1), VideoRepository.MAX_BATCH_SIZE);
+		this.maxDelay = maxDelay;
+		this.retryAfter = retryAfter;
+	}
+
+	@PostConstruct
+	public void start() {
+		subscription = Flux.<PendingWrite>create(fluxSink -> sink = fluxSink)
+				.bufferTimeout(maxBatchSize, maxDelay, true)
+				.flatMap(this::flush, maxInFlight)
+				.subscribe();
+	}
+
+	@PreDestroy
+	public void stop() {
+		lifecycle.writeLock()
+				.lock();
+		try {
+			stopped = true;
+			// Flushes what is still buffered, in-flight writes complete on their own
+			if (sink != null) { sink.complete(); }
+		} finally {
+			lifecycle.writeLock()
+					.unlock();
+		}
+	}
+
+	/**
+	 * Queues the video and emits its id once it has been written.
+	 */
+	public Mono<String> submit(VideoDto videoDto) {
+		return Mono.create(monoSink -> {
+			lifecycle.readLock()
+					.lock();
+			try {
+				if (stopped) {
+					monoSink.error(new IllegalStateException("Write pipeline stopped"));
+					return;
+				}
+				if (queued.incrementAndGet() > queueCapacity) {
+					queued.decrementAndGet();
+					rejected.increment();
+					monoSink.error(new WriteQueueFullException(retryAfter));
+					return;
+				}
+				sink.next(new PendingWrite(videoDto, monoSink));
+			} finally {
+				lifecycle.readLock()
+						.unlock();
+			}
+		});
+	}
+
+	private Mono<Void> flush(List<PendingWrite> batch) {
+		queued.addAndGet(-batch.size());
+		inFlight.addAndGet(batch.size());
+		long start = System.nanoTime();
+
+		List<VideoDto> videos = new ArrayList<>(batch.size());
+		for (PendingWrite write : batch) {
+			videos.add(write.videoDto());
+		}
+
+		return videoRepository.saveAll(videos)
+				.doOnNext(ids -> {
+					for (int i = 0; i < batch.size(); i++) {
+						batch.get(i)
+								.result()
+								.success(ids.get(i));
+					}
+					completed.add(batch.size());
+				})
+				.doOnError(e -> {
+					log.error("IN VideoWritePipeline - failed to write {} videos: {}", batch.size(), e.getMessage());
+					for (PendingWrite write : batch) {
+						write.result()
+								.error(e);
+					}
+					failed.add(batch.size());
+				})
+				.onErrorComplete()
+				.doFinally(signal -> {
+					inFlight.addAndGet(-batch.size());
+					flushes.increment();
+					flushNanos.add(System.nanoTime() - start);
+				})
+				.then();
+	}
+
+	public int getQueueDepth() {
+		return queued.get();
+	}
+
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+	public long getCompleted() {
+		return completed.sum();
+	}
+
+	public long getFailed() {
+		return failed.sum();
+	}
+
+	public long getRejected() {
+		return rejected.sum();
+	}
+
+	public long getFlushes() {
+		return flushes.sum();
+	}
+
+	public long getFlushNanos() {
+		return flushNanos.sum();
+	}
+
+	private record PendingWrite(VideoDto videoDto, MonoSink<String> result) {}
+}
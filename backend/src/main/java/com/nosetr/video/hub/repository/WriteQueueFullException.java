@@ -0,0 +1,21 @@
+package com.nosetr.video.hub.repository;
+
+import java.time.Duration;
+
+import lombok.Getter;
+
+/**
+ * Thrown when the write pipeline is saturated and the write was not accepted.
+ */
+@Getter
+public class WriteQueueFullException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final Duration retryAfter;
+
+	public WriteQueueFullException(Duration retryAfter) {
+		super("Too many pending writes, retry later.");
+		this.retryAfter = retryAfter;
+	}
+}
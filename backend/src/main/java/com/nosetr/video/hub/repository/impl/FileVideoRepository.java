@@ -0,0 +1,141 @@
+package com.nosetr.video.hub.repository.impl;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nosetr.video.hub.dto.VideoResponseDto;
+import com.nosetr.video.hub.repository.VideoDocumentChange;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Embedded persistent repository: the in-memory repository plus an append-only
+ * journal on local disk (one JSON line per write: a change, or an array of the
+ * changes of a batch), replayed at startup and compacted when it grows well
+ * beyond the live data.
+ */
+@Slf4j
+@Repository
+@Profile("file")
+public class FileVideoRepository extends InMemoryVideoRepository {
+
+	private static final TypeReference<List<VideoDocumentChange>> CHANGES = new TypeReference<>() {};
+
+	private final ObjectMapper objectMapper;
+	private final Path path;
+	private final boolean fsync;
+
+	private FileOutputStream output;
+	private BufferedWriter writer;
+	private long journalEntries;
+
+	public FileVideoRepository(
+			ObjectMapper objectMapper, @Value("${videos.repository.file.path:data/videos.jsonl}") String path,
+			@Value("${videos.repository.file.fsync:false}") boolean fsync
+	) {
+		this.objectMapper = objectMapper;
+		this.path = Path.of(path);
+		this.fsync = fsync;
+	}
+
+	@PostConstruct
+	public void open() throws IOException {
+		synchronized (writeLock) {
+			if (path.getParent() != null) { Files.createDirectories(path.getParent()); }
+
+			if (Files.exists(path)) {
+				try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+					String line;
+					while ((line = reader.readLine()) != null) {
+						try {
+							for (VideoDocumentChange change : read(line)) {
+								restore(change);
+							}
+						} catch (IOException e) {
+							// Typically the last line of a journal cut off by a crash
+							log.warn("IN FileVideoRepository - skipping unreadable journal entry: {}", e.getMessage());
+						}
+					}
+				}
+			}
+
+			compact();
+			log.info("IN FileVideoRepository - loaded {} videos from {}", size(), path);
+		}
+	}
+
+	@PreDestroy
+	public void close() throws IOException {
+		synchronized (writeLock) {
+			if (writer != null) { writer.close(); }
+		}
+	}
+
+	/**
+	 * The changes of one journal line, read completely or not at all.
+	 */
+	private List<VideoDocumentChange> read(String line) throws IOException {
+		if (line.startsWith("[")) { return objectMapper.readValue(line, CHANGES); }
+
+		return List.of(objectMapper.readValue(line, VideoDocumentChange.class));
+	}
+
+	@Override
+	protected void persist(List<VideoDocumentChange> changes) {
+		try {
+			// The changes are not applied yet, so they are appended after compacting
+			if (journalEntries > 2L * size() + 1000) { compact(); }
+
+			// One line per write, a batch cut off by a crash is skipped as a whole
+			writer.write(objectMapper.writeValueAsString((changes.size() == 1) ? changes.get(0) : changes));
+			writer.newLine();
+			writer.flush();
+			if (fsync) {
+				output.getChannel()
+						.force(false);
+			}
+			journalEntries += changes.size();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to write " + path, e);
+		}
+	}
+
+	/**
+	 * Rewrites the journal with one entry per live video.
+	 */
+	private void compact() throws IOException {
+		if (writer != null) { writer.close(); }
+
+		Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+		try (
+				BufferedWriter tmpWriter = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)
+		) {
+			for (VideoResponseDto video : all()) {
+				tmpWriter.write(objectMapper.writeValueAsString(new VideoDocumentChange(video.getId(), video)));
+				tmpWriter.newLine();
+			}
+		}
+		Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+		journalEntries = size();
+		output = new FileOutputStream(path.toFile(), true);
+		writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+	}
+}
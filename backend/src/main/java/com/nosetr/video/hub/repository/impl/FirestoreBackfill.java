@@ -0,0 +1,37 @@
+package com.nosetr.video.hub.repository.impl;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * One-off migration of the videos stored before the date fields existed, run
+ * in the background after startup with {@code videos.backfill.enabled}. Safe
+ * to run again, migrated videos are skipped.
+ */
+@Slf4j
+@Component
+@Profile("!memory & !file")
+@ConditionalOnProperty(name = "videos.backfill.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class FirestoreBackfill implements ApplicationRunner {
+
+	private final FirestoreVideoRepository videoRepository;
+
+	@Override
+	public void run(ApplicationArguments args) {
+		// Off the main thread, the Firestore client may still be created lazily
+		videoRepository.backfillDateFields()
+				.subscribeOn(Schedulers.boundedElastic())
+				.subscribe(
+						updated -> log.info("IN FirestoreBackfill - date fields stored for {} videos", updated),
+						error -> log.error("IN FirestoreBackfill - backfill failed: {}", error.getMessage())
+				);
+	}
+}
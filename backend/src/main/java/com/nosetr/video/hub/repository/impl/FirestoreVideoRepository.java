@@ -0,0 +1,389 @@
+package com.nosetr.video.hub.repository.impl;
+
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.function.SingletonSupplier;
+
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentChange;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldMask;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.ListenerRegistration;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.Transaction;
+import com.google.cloud.firestore.WriteBatch;
+import com.nosetr.video.hub.dto.ScoreDto;
+import com.nosetr.video.hub.dto.VideoDto;
+import com.nosetr.video.hub.dto.VideoResponseDto;
+import com.nosetr.video.hub.repository.RatingOutcome;
+import com.nosetr.video.hub.repository.VideoDocumentChange;
+import com.nosetr.video.hub.repository.VideoRepository;
+import com.nosetr.video.hub.util.ApiFutureUtil;
+import com.nosetr.video.hub.util.FirebaseMetrics;
+import com.nosetr.video.hub.util.InstrumentedExecutorService;
+import com.nosetr.video.hub.util.VideoDateUtil;
+import com.nosetr.video.hub.util.VideoFields;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+@Repository
+@Profile("!memory & !file")
+public class FirestoreVideoRepository implements VideoRepository {
+
+	// Resolved on first use, the client is created lazily (see FirebaseStartup)
+	private final Supplier<Firestore> firestore;
+	private final InstrumentedExecutorService firebaseExecutor;
+	private final Scheduler firebaseScheduler;
+	private final FirebaseMetrics firebaseMetrics;
+
+	public FirestoreVideoRepository(
+			ObjectProvider<Firestore> firestoreProvider, InstrumentedExecutorService firebaseExecutor,
+			Scheduler firebaseScheduler, FirebaseMetrics firebaseMetrics
+	) {
+		this.firestore = SingletonSupplier.of(firestoreProvider::getObject);
+		this.firebaseExecutor = firebaseExecutor;
+		this.firebaseScheduler = firebaseScheduler;
+		this.firebaseMetrics = firebaseMetrics;
+	}
+
+	private CollectionReference videos() {
+		return firestore.get()
+				.collection("videos");
+	}
+
+	/**
+	 * Builds a call on subscription, on the Firebase scheduler: the first call
+	 * creates the client, which must not block an event loop.
+	 */
+	private <T> Mono<T> onFirebase(Supplier<Mono<T>> call) {
+		return Mono.defer(call)
+				.subscribeOn(firebaseScheduler);
+	}
+
+	@Override
+	public Mono<String> save(VideoDto videoDto) {
+		return onFirebase(
+				() -> firebaseMetrics.record("firestore.add", ApiFutureUtil.toMono(() -> videos().add(videoDto), firebaseExecutor))
+		)
+				.map(DocumentReference::getId);
+	}
+
+	@Override
+	public Mono<List<String>> saveAll(List<VideoDto> videoDtos) {
+		return onFirebase(() -> {
+			WriteBatch batch = firestore.get()
+					.batch();
+
+			List<String> ids = new ArrayList<>(videoDtos.size());
+			for (VideoDto videoDto : videoDtos) {
+				DocumentReference reference = videos().document();
+				batch.create(reference, videoDto);
+				ids.add(reference.getId());
+			}
+
+			return firebaseMetrics.record("firestore.batch", ApiFutureUtil.toMono(batch::commit, firebaseExecutor))
+					.thenReturn(ids);
+		});
+	}
+
+	@Override
+	public Mono<List<VideoResponseDto>> findPage(int limit, String lastId, Set<String> fields) {
+		return onFirebase(() -> {
+			Query query = videos().orderBy(FieldPath.documentId())
+					.limit(limit);
+
+			if (lastId != null) { query = query.startAfter(lastId); }
+
+			return find(query, fields);
+		});
+	}
+
+	@Override
+	public Mono<List<VideoResponseDto>> findByEpochDayBetween(long fromEpochDay, long toEpochDay, Set<String> fields) {
+		// Range query on the single-field epochDay index, already sorted by day
+		return onFirebase(
+				() -> find(
+						videos().whereGreaterThanOrEqualTo("epochDay", fromEpochDay)
+								.whereLessThanOrEqualTo("epochDay", toEpochDay)
+								.orderBy("epochDay"),
+						fields
+				)
+		);
+	}
+
+	private Mono<List<VideoResponseDto>> find(Query query, Set<String> fields) {
+		// A projection keeps unselected fields (e.g. the ratings) on the server
+		Query projected = (fields == null) ? query : query.select(VideoFields.storedFields(fields));
+
+		return firebaseMetrics.record("firestore.get", ApiFutureUtil.toMono(projected::get, firebaseExecutor))
+				.map(querySnapshot -> {
+					List<VideoResponseDto> videos = new ArrayList<>(querySnapshot.size());
+					for (DocumentSnapshot doc : querySnapshot.getDocuments()) {
+						videos.add(toResponseDto(doc));
+					}
+					return videos;
+				});
+	}
+
+	@Override
+	public Mono<List<RatingOutcome>> addRatings(String videoId, List<ScoreDto> scoreDtos) {
+		return onFirebase(() -> {
+			DocumentReference reference = videos().document(videoId);
+
+			return firebaseMetrics.record(
+					"firestore.transaction", ApiFutureUtil.toMono(
+							() -> firestore.get()
+									.runTransaction(transaction -> addRatings(transaction, reference, scoreDtos)),
+							firebaseExecutor
+					)
+			);
+		});
+	}
+
+	/**
+	 * Reads only the aggregates and the voter markers, then writes the new
+	 * ratings, markers and aggregates in the same transaction.
+	 */
+	private static List<RatingOutcome> addRatings(
+			Transaction transaction, DocumentReference reference, List<ScoreDto> scoreDtos
+	) throws InterruptedException, ExecutionException {
+		// One marker document per voter keeps the duplicate check O(1)
+		Map<String, DocumentReference> voterReferences = new LinkedHashMap<>();
+		for (ScoreDto scoreDto : scoreDtos) {
+			voterReferences.computeIfAbsent(
+					scoreDto.getVoter(), voter -> reference.collection("voters")
+							.document(voter)
+			);
+		}
+
+		List<DocumentReference> references = new ArrayList<>(voterReferences.size() + 1);
+		references.add(reference);
+		references.addAll(voterReferences.values());
+
+		List<DocumentSnapshot> snapshots = transaction.getAll(
+				references.toArray(DocumentReference[]::new), FieldMask.of("userId", "ratingCount", "ratingSum")
+		)
+				.get();
+		DocumentSnapshot video = snapshots.get(0);
+
+		if (!video.exists()) { return Collections.nCopies(scoreDtos.size(), RatingOutcome.NOT_FOUND); }
+
+		Set<String> voted = new HashSet<>();
+		for (DocumentSnapshot voter : snapshots.subList(1, snapshots.size())) {
+			if (voter.exists()) { voted.add(voter.getId()); }
+		}
+
+		long count;
+		long sum;
+		List<ScoreDto> legacyRatings = List.of();
+
+		if (video.contains("ratingCount")) {
+			count = video.getLong("ratingCount");
+			sum = video.getLong("ratingSum");
+		} else {
+			// Video written before the aggregates existed: migrate it once
+			VideoDto legacy = transaction.get(reference)
+					.get()
+					.toObject(VideoDto.class);
+			legacyRatings = (legacy.getRatings() == null) ? List.of() : legacy.getRatings();
+
+			count = 0;
+			sum = 0;
+			for (ScoreDto rating : legacyRatings) {
+				voted.add(rating.getVoter());
+				count++;
+				if (rating.getScore() != null) { sum += rating.getScore(); }
+			}
+		}
+
+		List<RatingOutcome> outcomes = new ArrayList<>(scoreDtos.size());
+		List<Object> added = new ArrayList<>(scoreDtos.size());
+
+		for (ScoreDto scoreDto : scoreDtos) {
+			if (
+				scoreDto.getVoter()
+						.equals(video.getString("userId"))
+			) {
+				outcomes.add(RatingOutcome.OWN_VIDEO);
+			} else if (!voted.add(scoreDto.getVoter())) {
+				outcomes.add(RatingOutcome.ALREADY_VOTED);
+			} else {
+				outcomes.add(RatingOutcome.ADDED);
+				added.add(toMap(scoreDto));
+				count++;
+				sum += scoreDto.getScore();
+				transaction.set(voterReferences.get(scoreDto.getVoter()), scoreDto);
+			}
+		}
+
+		if (added.isEmpty()) { return outcomes; }
+
+		for (ScoreDto rating : legacyRatings) {
+			transaction.set(
+					reference.collection("voters")
+							.document(rating.getVoter()),
+					rating
+			);
+		}
+		transaction.update(
+				reference, Map.of(
+						"ratings", FieldValue.arrayUnion(added.toArray()),
+						"ratingCount", count,
+						"ratingSum", sum,
+						"averageRating", (double) sum / count
+				)
+		);
+		return outcomes;
+	}
+
+	@Override
+	public Disposable listen(Consumer<List<VideoDocumentChange>> onChanges, Consumer<Throwable> onError) {
+		// Snapshot events have to be applied one at a time and in order
+		ExecutorService listenerExecutor = Executors.newSingleThreadExecutor(
+				new CustomizableThreadFactory("video-listener-")
+		);
+
+		ListenerRegistration registration = videos().addSnapshotListener(listenerExecutor, (snapshot, error) -> {
+			if (error != null) {
+				onError.accept(error);
+				return;
+			}
+			onChanges.accept(toChanges(snapshot));
+		});
+
+		return () -> {
+			registration.remove();
+			listenerExecutor.shutdown();
+		};
+	}
+
+	private static List<VideoDocumentChange> toChanges(QuerySnapshot snapshot) {
+		List<DocumentChange> documentChanges = snapshot.getDocumentChanges();
+
+		List<VideoDocumentChange> changes = new ArrayList<>(documentChanges.size());
+		for (DocumentChange change : documentChanges) {
+			DocumentSnapshot doc = change.getDocument();
+			changes.add(
+					new VideoDocumentChange(
+							doc.getId(), (change.getType() == DocumentChange.Type.REMOVED) ? null : toResponseDto(doc)
+					)
+			);
+		}
+		return changes;
+	}
+
+	private static VideoResponseDto toResponseDto(DocumentSnapshot doc) {
+		VideoResponseDto dto = doc.toObject(VideoResponseDto.class);
+		dto.setId(doc.getId());
+
+		// Written before the date fields existed and not backfilled yet
+		if (dto.getEpochDay() == null && dto.getDay() != null) {
+			try {
+				VideoDateUtil.applyDateFields(dto);
+			} catch (DateTimeParseException e) {
+				// Left without date fields, like before
+			}
+		}
+
+		// Ratings written before the aggregates existed, migrated on the next vote
+		if (!doc.contains("ratingCount") && dto.getRatings() != null) {
+			long count = dto.getRatings()
+					.size();
+			long sum = 0;
+			for (ScoreDto rating : dto.getRatings()) {
+				if (rating.getScore() != null) { sum += rating.getScore(); }
+			}
+			dto.setRatingCount(count);
+			dto.setRatingSum(sum);
+			dto.setAverageRating((count == 0) ? 0 : (double) sum / count);
+		}
+		return dto;
+	}
+
+	/**
+	 * Stores {@code isoYear}, {@code isoWeek} and {@code epochDay} with the
+	 * videos written before these fields existed, so the range queries find
+	 * them too. Pages through the collection in batches; returns the number of
+	 * updated videos.
+	 */
+	public Mono<Integer> backfillDateFields() {
+		return onFirebase(() -> backfillDateFields(null, 0));
+	}
+
+	private Mono<Integer> backfillDateFields(String lastId, int updated) {
+		Query query = videos().orderBy(FieldPath.documentId())
+				.select("day", "epochDay")
+				.limit(MAX_BATCH_SIZE);
+		if (lastId != null) { query = query.startAfter(lastId); }
+
+		return ApiFutureUtil.toMono(query::get, firebaseExecutor)
+				.flatMap(snapshot -> {
+					WriteBatch batch = firestore.get()
+							.batch();
+					int count = 0;
+
+					for (DocumentSnapshot doc : snapshot.getDocuments()) {
+						if (doc.contains("epochDay") || doc.getString("day") == null) { continue; }
+
+						VideoDto dates = new VideoDto().toBuilder()
+								.day(doc.getString("day"))
+								.build();
+						try {
+							VideoDateUtil.applyDateFields(dates);
+						} catch (DateTimeParseException e) {
+							continue;
+						}
+						batch.update(
+								doc.getReference(), Map.of(
+										"isoYear", dates.getIsoYear(),
+										"isoWeek", dates.getIsoWeek(),
+										"epochDay", dates.getEpochDay()
+								)
+						);
+						count++;
+					}
+
+					int total = updated + count;
+					Mono<Integer> written = (count == 0) ? Mono.just(total) : ApiFutureUtil.toMono(batch::commit, firebaseExecutor)
+							.thenReturn(total);
+					if (snapshot.size() < MAX_BATCH_SIZE) { return written; }
+
+					String next = snapshot.getDocuments()
+							.get(snapshot.size() - 1)
+							.getId();
+					return written.flatMap(n -> backfillDateFields(next, n));
+				});
+	}
+
+	private static Map<String, Object> toMap(ScoreDto scoreDto) {
+		Map<String, Object> map = new HashMap<>();
+		map.put("voter", scoreDto.getVoter());
+		map.put("score", scoreDto.getScore());
+		map.put("text", scoreDto.getText());
+		return map;
+	}
+}
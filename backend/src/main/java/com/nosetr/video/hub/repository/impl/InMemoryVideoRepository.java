@@ -0,0 +1,335 @@
+package com.nosetr.video.hub.repository.impl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import com.nosetr.video.hub.dto.ScoreDto;
+import com.nosetr.video.hub.dto.VideoDto;
+import com.nosetr.video.hub.dto.VideoResponseDto;
+import com.nosetr.video.hub.repository.RatingOutcome;
+import com.nosetr.video.hub.repository.VideoDocumentChange;
+import com.nosetr.video.hub.repository.VideoRepository;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Non-persistent repository for local runs, load tests and benchmarks. Reads
+ * are lock-free, writes are serialized and published to the listeners in
+ * order, after the write lock was released. Stored videos are never mutated,
+ * every write stores a new instance.
+ */
+@Slf4j
+@Repository
+@Profile("memory")
+public class InMemoryVideoRepository implements VideoRepository {
+
+	private static final String ID_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+
+	private final ConcurrentSkipListMap<String, VideoResponseDto> videos = new ConcurrentSkipListMap<>();
+	// Voter markers per video, guarded by writeLock
+	private final Map<String, Set<String>> voters = new HashMap<>();
+	private final List<Consumer<List<VideoDocumentChange>>> listeners = new CopyOnWriteArrayList<>();
+	// Written changes not published yet, in write order, and the number of publish calls pending
+	private final Queue<Publication> publications = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger publishing = new AtomicInteger();
+
+	protected final Object writeLock = new Object();
+
+	// Simulated storage round trip, e.g. to approximate Firestore in load tests
+	@Value("${videos.repository.memory.latency:0ms}")
+	private Duration latency = Duration.ZERO;
+
+	@Override
+	public Mono<String> save(VideoDto videoDto) {
+		return withLatency(Mono.fromCallable(() -> {
+			try {
+				VideoDocumentChange change = newVideo(videoDto);
+				synchronized (writeLock) {
+					write(List.of(change));
+				}
+				return change.id();
+			} finally {
+				publish();
+			}
+		}));
+	}
+
+	@Override
+	public Mono<List<String>> saveAll(List<VideoDto> videoDtos) {
+		return withLatency(Mono.fromCallable(() -> {
+			List<VideoDocumentChange> changes = new ArrayList<>(videoDtos.size());
+			for (VideoDto videoDto : videoDtos) {
+				changes.add(newVideo(videoDto));
+			}
+
+			try {
+				// One write: persisted together or not at all
+				synchronized (writeLock) {
+					write(changes);
+				}
+			} finally {
+				publish();
+			}
+			return changes.stream()
+					.map(VideoDocumentChange::id)
+					.toList();
+		}));
+	}
+
+	/**
+	 * The change creating a new video.
+	 */
+	private static VideoDocumentChange newVideo(VideoDto videoDto) {
+		String id = newId();
+		VideoResponseDto video = new VideoResponseDto().toBuilder()
+				.id(id)
+				.userId(videoDto.getUserId())
+				.title(videoDto.getTitle())
+				.day(videoDto.getDay())
+				.from(videoDto.getFrom())
+				.till(videoDto.getTill())
+				.ratings(videoDto.getRatings())
+				.creator(videoDto.getCreator())
+				.ratingCount(videoDto.getRatingCount())
+				.ratingSum(videoDto.getRatingSum())
+				.averageRating(videoDto.getAverageRating())
+				.isoYear(videoDto.getIsoYear())
+				.isoWeek(videoDto.getIsoWeek())
+				.epochDay(videoDto.getEpochDay())
+				.fromMinute(videoDto.getFromMinute())
+				.tillMinute(videoDto.getTillMinute())
+				.build();
+
+		return new VideoDocumentChange(id, video);
+	}
+
+	/**
+	 * Stored videos are shared, so every field is returned whatever was selected.
+	 */
+	@Override
+	public Mono<List<VideoResponseDto>> findPage(int limit, String lastId, Set<String> fields) {
+		return withLatency(Mono.fromCallable(() -> {
+			List<VideoResponseDto> page = new ArrayList<>(limit);
+			for (VideoResponseDto video : (lastId == null) ? videos.values()
+					: videos.tailMap(lastId, false)
+							.values()) {
+				if (page.size() == limit) { break; }
+				page.add(video);
+			}
+			return page;
+		}));
+	}
+
+	@Override
+	public Mono<List<VideoResponseDto>> findByEpochDayBetween(long fromEpochDay, long toEpochDay, Set<String> fields) {
+		return withLatency(Mono.fromCallable(
+				() -> videos.values()
+						.stream()
+						.filter(
+								video -> video.getEpochDay() != null && video.getEpochDay() >= fromEpochDay
+										&& video.getEpochDay() <= toEpochDay
+						)
+						.sorted(Comparator.comparingLong(VideoResponseDto::getEpochDay))
+						.toList()
+		));
+	}
+
+	@Override
+	public Mono<List<RatingOutcome>> addRatings(String videoId, List<ScoreDto> scoreDtos) {
+		return withLatency(Mono.fromCallable(() -> {
+			try {
+				return rate(videoId, scoreDtos);
+			} finally {
+				publish();
+			}
+		}));
+	}
+
+	private List<RatingOutcome> rate(String videoId, List<ScoreDto> scoreDtos) {
+		synchronized (writeLock) {
+			VideoResponseDto video = videos.get(videoId);
+
+			if (video == null) { return Collections.nCopies(scoreDtos.size(), RatingOutcome.NOT_FOUND); }
+
+			Set<String> voted = new HashSet<>(voters.getOrDefault(videoId, Set.of()));
+			List<ScoreDto> ratings = (video.getRatings() == null)
+					? new ArrayList<>()
+					: new ArrayList<>(video.getRatings());
+			long count = video.getRatingCount();
+			long sum = video.getRatingSum();
+
+			List<RatingOutcome> outcomes = new ArrayList<>(scoreDtos.size());
+			for (ScoreDto scoreDto : scoreDtos) {
+				if (
+					scoreDto.getVoter()
+							.equals(video.getUserId())
+				) {
+					outcomes.add(RatingOutcome.OWN_VIDEO);
+				} else if (!voted.add(scoreDto.getVoter())) {
+					outcomes.add(RatingOutcome.ALREADY_VOTED);
+				} else {
+					outcomes.add(RatingOutcome.ADDED);
+					ratings.add(scoreDto);
+					count++;
+					sum += scoreDto.getScore();
+				}
+			}
+
+			if (count == video.getRatingCount()) { return outcomes; }
+
+			write(
+					List.of(
+							new VideoDocumentChange(
+									videoId, video.toBuilder()
+											.ratings(ratings)
+											.ratingCount(count)
+											.ratingSum(sum)
+											.averageRating((double) sum / count)
+											.build()
+							)
+					)
+			);
+			return outcomes;
+		}
+	}
+
+	/**
+	 * Runs a call off the event loop: writes wait for the write lock and a
+	 * persistent subclass blocks on its storage.
+	 */
+	private <T> Mono<T> withLatency(Mono<T> call) {
+		Mono<T> blocking = call.subscribeOn(Schedulers.boundedElastic());
+
+		return latency.isZero() ? blocking : Mono.delay(latency)
+				.then(blocking);
+	}
+
+	@Override
+	public Disposable listen(Consumer<List<VideoDocumentChange>> onChanges, Consumer<Throwable> onError) {
+		synchronized (writeLock) {
+			List<VideoDocumentChange> initial = new ArrayList<>(videos.size());
+			for (VideoResponseDto video : videos.values()) {
+				initial.add(new VideoDocumentChange(video.getId(), video));
+			}
+			// Queued, so the snapshot reaches the listener before any later change
+			publications.add(new Publication(initial, List.of(onChanges)));
+			listeners.add(onChanges);
+		}
+		publish();
+		return () -> listeners.remove(onChanges);
+	}
+
+	/**
+	 * Persists, applies and queues the changes of one write for
+	 * {@link #publish()}. Callers hold {@link #writeLock}. Nothing is applied if
+	 * persisting fails.
+	 */
+	private void write(List<VideoDocumentChange> changes) {
+		persist(changes);
+		for (VideoDocumentChange change : changes) {
+			restore(change);
+		}
+
+		publications.add(new Publication(changes, List.copyOf(listeners)));
+	}
+
+	/**
+	 * Hands the queued changes to their listeners, outside of {@link #writeLock}.
+	 * One caller drains at a time, the others leave their changes to it, so the
+	 * listeners still see the changes in write order.
+	 */
+	private void publish() {
+		if (publishing.getAndIncrement() != 0) { return; }
+
+		int missed = 1;
+		do {
+			Publication publication;
+			while ((publication = publications.poll()) != null) {
+				for (Consumer<List<VideoDocumentChange>> listener : publication.listeners()) {
+					try {
+						listener.accept(publication.changes());
+					} catch (RuntimeException e) {
+						log.error("IN InMemoryVideoRepository - listener failed: {}", e.getMessage(), e);
+					}
+				}
+			}
+			missed = publishing.addAndGet(-missed);
+		} while (missed != 0);
+	}
+
+	/**
+	 * Applies a change to the in-memory state only, e.g. while loading stored data.
+	 */
+	protected void restore(VideoDocumentChange change) {
+		if (change.isRemoved()) {
+			videos.remove(change.id());
+			voters.remove(change.id());
+			return;
+		}
+
+		videos.put(change.id(), change.video());
+
+		Set<String> videoVoters = voters.computeIfAbsent(change.id(), k -> new HashSet<>());
+		if (
+			change.video()
+					.getRatings() != null
+		) {
+			for (
+				ScoreDto rating : change.video()
+						.getRatings()
+			) {
+				videoVoters.add(rating.getVoter());
+			}
+		}
+	}
+
+	/**
+	 * Hook for persistent subclasses, called with the changes of every write
+	 * before they are applied. The changes of one write have to be persisted
+	 * atomically; if persisting fails, none of them is applied.
+	 */
+	protected void persist(List<VideoDocumentChange> changes) {}
+
+	protected int size() {
+		return videos.size();
+	}
+
+	protected Iterable<VideoResponseDto> all() {
+		return videos.values();
+	}
+
+	private record Publication(
+			List<VideoDocumentChange> changes, List<Consumer<List<VideoDocumentChange>>> listeners
+	) {}
+
+	private static String newId() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+
+		char[] id = new char[20];
+		for (int i = 0; i < id.length; i++) {
+			id[i] = ID_CHARS.charAt(random.nextInt(ID_CHARS.length()));
+		}
+		return new String(id);
+	}
+}
@@ -0,0 +1,20 @@
+package com.nosetr.video.hub.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.nosetr.video.hub.config.SecurityConfig.CustomPrincipal;
+
+import reactor.core.publisher.Mono;
+
+public interface TokenVerificationService {
+
+	/**
+	 * Verifies a Firebase ID token, or returns the principal cached for it until
+	 * the token expires.
+	 */
+	Mono<CustomPrincipal> verify(String idToken);
+
+	CacheStats cacheStats();
+
+	long cacheSize();
+
+}
@@ -1,12 +1,25 @@
 package com.nosetr.video.hub.service;
 
 import com.google.firebase.auth.FirebaseAuthException;
+import com.nosetr.video.hub.dto.BatchItemResultDto;
 import com.nosetr.video.hub.dto.UserDto;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface UserService {
+
+	/**
+	 * Maximum users of one Firebase import call.
+	 */
+	int MAX_IMPORT_SIZE = 1000;
 	
 	Mono<UserDto> createUser(UserDto userDto) throws FirebaseAuthException;
 
+	/**
+	 * Imports the users in chunks, one Firebase call each, and returns one
+	 * result per user in request order as the chunks complete.
+	 */
+	Flux<BatchItemResultDto> importUsers(Flux<UserDto> userDtos);
+
 }
@@ -1,13 +1,20 @@
 package com.nosetr.video.hub.service;
 
 import java.util.List;
-import java.util.concurrent.ExecutionException;
+import java.util.Map;
 
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 
+import com.nosetr.video.hub.dto.BatchItemResultDto;
 import com.nosetr.video.hub.dto.ScoreDto;
+import com.nosetr.video.hub.dto.UserStatsDto;
 import com.nosetr.video.hub.dto.VideoDto;
+import com.nosetr.video.hub.dto.VideoEventDto;
+import com.nosetr.video.hub.dto.VideoPageDto;
 import com.nosetr.video.hub.dto.VideoResponseDto;
+import com.nosetr.video.hub.dto.VideoSummaryDto;
+import com.nosetr.video.hub.dto.YearStatsDto;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -16,11 +23,87 @@ public interface VideoService {
 
 	Mono<ResponseEntity<String>> setVideo(VideoDto videoDto);
 
+	/**
+	 * Validates and stores the videos in batched writes, emitting one result per
+	 * video in input order.
+	 */
+	Flux<BatchItemResultDto> setVideos(Flux<VideoDto> videoDtos);
+
 	Mono<Object> addRating(String videoId, ScoreDto scoreDto);
 
-	Flux<VideoResponseDto> getAll() throws InterruptedException, ExecutionException;
+	Flux<VideoResponseDto> getAll();
+
+	/**
+	 * All videos with only the id and the requested fields.
+	 */
+	Flux<Map<String, Object>> getAll(List<String> fields);
+
+	/**
+	 * All videos as summaries, without their ratings.
+	 */
+	Flux<VideoSummaryDto> getAllSummaries();
+
+	/**
+	 * Returns at most {@code limit} videos ordered by id, starting after the
+	 * given cursor ({@code null} for the first page).
+	 */
+	Mono<VideoPageDto> getPage(int limit, String cursor);
+
+	/**
+	 * Streams all videos, fetching one page of {@code pageSize} videos at a time
+	 * as downstream demand arrives.
+	 */
+	Flux<VideoResponseDto> streamAll(int pageSize);
+
+	/**
+	 * Returns the videos of the given ISO-8601 week, ordered by day.
+	 */
+	Mono<List<VideoResponseDto>> getVideosForWeek(int weekOfYear, int year);
+
+	/**
+	 * Returns the videos of the given ISO-8601 week with only the id and the
+	 * requested fields, ordered by day.
+	 */
+	Mono<List<Map<String, Object>>> getVideosForWeek(int weekOfYear, int year, List<String> fields);
+
+	/**
+	 * Returns the videos of the given ISO-8601 week as summaries, ordered by day.
+	 */
+	Mono<List<VideoSummaryDto>> getSummariesForWeek(int weekOfYear, int year);
+
+	/**
+	 * The best rated videos of an ISO week ({@code year} and {@code week}), an
+	 * ISO year ({@code week == null}) or overall (both {@code null}).
+	 */
+	Mono<List<VideoResponseDto>> getTopVideos(Integer year, Integer week, int limit);
+
+	/**
+	 * Live feed of video creations and rating changes.
+	 */
+	Flux<ServerSentEvent<VideoEventDto>> streamEvents();
+
+	/**
+	 * The videos of a user with their ratings, newest day first.
+	 */
+	Mono<List<VideoResponseDto>> getVideosByUser(String userId);
+
+	Mono<UserStatsDto> getUserStats(String userId);
+
+	/**
+	 * Totals of an ISO year and of each of its weeks with videos.
+	 */
+	Mono<YearStatsDto> getYearStats(int year);
+
+	/**
+	 * Videos of a day (yyyy-MM-dd) overlapping the time window {@code from}-{@code till}
+	 * (HH:mm, the whole day if missing), ordered by start time.
+	 */
+	Mono<List<VideoResponseDto>> getVideosForTimeRange(String day, String from, String till);
 
-	Mono<List<VideoResponseDto>> getVideosForWeek(int weekOfYear, int year)
-			throws InterruptedException, ExecutionException;
+	/**
+	 * Videos whose title contains every word of {@code query}, words matching as
+	 * prefixes, best matches first.
+	 */
+	Mono<List<VideoResponseDto>> search(String query, int limit);
 
 }
@@ -0,0 +1,131 @@
+package com.nosetr.video.hub.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseToken;
+import com.nosetr.video.hub.config.SecurityConfig.CustomPrincipal;
+import com.nosetr.video.hub.service.TokenVerificationService;
+import com.nosetr.video.hub.util.FirebaseMetrics;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+@Service
+public class TokenVerificationServiceImpl implements TokenVerificationService {
+
+	private final ObjectProvider<FirebaseAuth> firebaseAuth;
+	private final Scheduler firebaseScheduler;
+	private final FirebaseMetrics firebaseMetrics;
+	private final Cache<String, VerifiedToken> cache;
+	private final String adminClaim;
+
+	public TokenVerificationServiceImpl(
+			ObjectProvider<FirebaseAuth> firebaseAuth, Scheduler firebaseScheduler, FirebaseMetrics firebaseMetrics,
+			@Value("${firebase.auth.token-cache.max-size:10000}") long maxSize,
+			@Value("${firebase.auth.admin-claim:admin}") String adminClaim
+	) {
+		this.firebaseAuth = firebaseAuth;
+		this.firebaseScheduler = firebaseScheduler;
+		this.firebaseMetrics = firebaseMetrics;
+		this.adminClaim = adminClaim;
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfter(new TokenExpiry())
+				.recordStats()
+				.build();
+	}
+
+	@Override
+	public Mono<CustomPrincipal> verify(String idToken) {
+		String key = hash(idToken);
+
+		VerifiedToken cached = cache.getIfPresent(key);
+		if (cached != null) { return Mono.just(cached.principal()); }
+
+		// verifyIdToken may fetch the public keys over HTTP, keep it off the event loop
+		return firebaseMetrics.record(
+				"auth.verifyIdToken", Mono.fromCallable(() -> firebaseAuth.getObject()
+						.verifyIdToken(idToken))
+						.subscribeOn(firebaseScheduler)
+		)
+				.map(decodedToken -> {
+					CustomPrincipal principal = new CustomPrincipal(
+							decodedToken.getUid(), decodedToken.getEmail(), Boolean.TRUE.equals(
+									decodedToken.getClaims()
+											.get(adminClaim)
+							)
+					);
+					cache.put(key, new VerifiedToken(principal, expiresAtMillis(decodedToken)));
+					return principal;
+				});
+	}
+
+	@Override
+	public CacheStats cacheStats() {
+		return cache.stats();
+	}
+
+	@Override
+	public long cacheSize() {
+		return cache.estimatedSize();
+	}
+
+	private static long expiresAtMillis(FirebaseToken decodedToken) {
+		Object exp = decodedToken.getClaims()
+				.get("exp");
+		return (exp instanceof Number seconds)
+				? TimeUnit.SECONDS.toMillis(seconds.longValue())
+				: System.currentTimeMillis();
+	}
+
+	/**
+	 * The cache is keyed by a digest so raw tokens are not kept in memory.
+	 */
+	private static String hash(String idToken) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256")
+					.digest(idToken.getBytes(StandardCharsets.UTF_8));
+			return Base64.getEncoder()
+					.encodeToString(digest);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private record VerifiedToken(CustomPrincipal principal, long expiresAtMillis) {}
+
+	/**
+	 * Evicts each entry at its token's {@code exp} claim.
+	 */
+	private static class TokenExpiry implements Expiry<String, VerifiedToken> {
+
+		@Override
+		public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+			long remainingMillis = value.expiresAtMillis() - System.currentTimeMillis();
+			return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+		}
+
+		@Override
+		public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+			return expireAfterCreate(key, value, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+	}
+}
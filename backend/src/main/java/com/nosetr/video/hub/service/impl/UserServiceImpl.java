@@ -1,21 +1,63 @@
 package com.nosetr.video.hub.service.impl;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCrypt;
 import org.springframework.stereotype.Service;
 
+import com.google.firebase.auth.EmailIdentifier;
+import com.google.firebase.auth.ErrorInfo;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseAuthException;
+import com.google.firebase.auth.GetUsersResult;
+import com.google.firebase.auth.ImportUserRecord;
+import com.google.firebase.auth.UserIdentifier;
+import com.google.firebase.auth.UserImportOptions;
 import com.google.firebase.auth.UserRecord.CreateRequest;
+import com.google.firebase.auth.hash.Bcrypt;
+import com.nosetr.video.hub.dto.BatchItemResultDto;
 import com.nosetr.video.hub.dto.UserDto;
 import com.nosetr.video.hub.service.UserService;
+import com.nosetr.video.hub.util.FirebaseMetrics;
 
 import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
 
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
-	private final FirebaseAuth firebaseAuth;
+	private static final Pattern BCRYPT_HASH = Pattern.compile("\\$2[aby]\\$\\d{2}\\$[./A-Za-z0-9]{53}");
+	// Firebase's limit of identifiers per getUsers call
+	private static final int MAX_LOOKUP_SIZE = 100;
+	private static final UserImportOptions IMPORT_OPTIONS = UserImportOptions.withHash(Bcrypt.getInstance());
+
+	private final ObjectProvider<FirebaseAuth> firebaseAuth;
+	private final Scheduler firebaseScheduler;
+	private final FirebaseMetrics firebaseMetrics;
+
+	@Value("${users.import.batch-size:1000}")
+	private int importBatchSize;
+	@Value("${users.import.concurrency:2}")
+	private int importConcurrency;
+	@Value("${users.import.bcrypt-strength:10}")
+	private int bcryptStrength;
 
 	@Override
 	public Mono<UserDto> createUser(UserDto userDto) throws FirebaseAuthException {
@@ -25,7 +67,11 @@ public class UserServiceImpl implements UserService {
 		request.setPassword(userDto.getPassword());
 		request.setEmailVerified(Boolean.TRUE);
 
-		return Mono.fromCallable(() -> firebaseAuth.createUser(request))
+		return firebaseMetrics.record(
+				"auth.createUser", Mono.fromCallable(() -> firebaseAuth.getObject()
+						.createUser(request))
+						.subscribeOn(firebaseScheduler)
+		)
 				.map(
 						userVideo -> new UserDto().toBuilder()
 								.id(userVideo.getUid())
@@ -37,4 +83,218 @@ public class UserServiceImpl implements UserService {
 					return new RuntimeException("Failed to create user", e);
 				});
 	}
+
+	@Override
+	public Flux<BatchItemResultDto> importUsers(Flux<UserDto> userDtos) {
+		int chunkSize = Math.min(Math.max(importBatchSize, 1), MAX_IMPORT_SIZE);
+
+		return Flux.defer(() -> {
+			// Lower case emails of the whole request, an email is only imported once
+			Set<String> emails = ConcurrentHashMap.newKeySet();
+
+			return userDtos.index()
+					.buffer(chunkSize)
+					.flatMapSequential(chunk -> importChunk(chunk, emails), Math.max(importConcurrency, 1))
+					.flatMapIterable(results -> results);
+		});
+	}
+
+	/**
+	 * Imports the valid users of one chunk whose email is not taken yet in a
+	 * single call. {@code importUsers} itself overwrites existing uids and does
+	 * not check emails, so ids are always generated and emails looked up first.
+	 * Plain passwords are hashed in parallel, bcrypt being the slow part of an
+	 * import.
+	 */
+	private Mono<List<BatchItemResultDto>> importChunk(List<Tuple2<Long, UserDto>> chunk, Set<String> emails) {
+		return Mono.defer(() -> {
+			BatchItemResultDto[] results = new BatchItemResultDto[chunk.size()];
+			List<Integer> pending = new ArrayList<>(chunk.size());
+			List<UserIdentifier> identifiers = new ArrayList<>(chunk.size());
+
+			for (int i = 0; i < chunk.size(); i++) {
+				UserDto userDto = chunk.get(i)
+						.getT2();
+
+				String error = validate(userDto);
+				if (error == null) {
+					try {
+						identifiers.add(new EmailIdentifier(userDto.getEmail()));
+					} catch (IllegalArgumentException e) {
+						error = "Invalid email";
+					}
+				}
+				if (error != null) {
+					results[i] = result(chunk, i, null, HttpStatus.BAD_REQUEST, error);
+				} else if (!emails.add(email(userDto))) {
+					results[i] = result(chunk, i, null, HttpStatus.CONFLICT, "The email occurs more than once in the request");
+					identifiers.remove(identifiers.size() - 1);
+				} else {
+					pending.add(i);
+				}
+			}
+
+			if (pending.isEmpty()) { return Mono.just(Arrays.asList(results)); }
+
+			return existingEmails(identifiers).flatMap(existing -> {
+				List<Integer> positions = new ArrayList<>(pending.size());
+				for (int position : pending) {
+					if (
+						existing.contains(
+								email(
+										chunk.get(position)
+												.getT2()
+								)
+						)
+					) {
+						results[position] = result(chunk, position, null, HttpStatus.CONFLICT, "A user with this email already exists");
+					} else {
+						positions.add(position);
+					}
+				}
+
+				if (positions.isEmpty()) { return Mono.just(Arrays.asList(results)); }
+
+				// Hashing is CPU bound but long, kept off the shared parallel scheduler and its timers
+				return Flux.fromIterable(positions)
+						.flatMapSequential(
+								position -> Mono.fromCallable(
+										() -> toRecord(
+												chunk.get(position)
+														.getT2()
+										)
+								)
+										.subscribeOn(Schedulers.boundedElastic())
+						)
+						.collectList()
+						.flatMap(records -> importRecords(chunk, positions, records, results));
+			})
+					.onErrorResume(e -> {
+						for (int position : pending) {
+							if (results[position] == null) {
+								results[position] = result(
+										chunk, position, null, HttpStatus.INTERNAL_SERVER_ERROR, "Failed to import user: " + e.getMessage()
+								);
+							}
+						}
+						return Mono.just(Arrays.asList(results));
+					});
+		});
+	}
+
+	private Mono<List<BatchItemResultDto>> importRecords(
+			List<Tuple2<Long, UserDto>> chunk, List<Integer> positions, List<Record> records, BatchItemResultDto[] results
+	) {
+		List<ImportUserRecord> importRecords = records.stream()
+				.map(Record::importRecord)
+				.toList();
+
+		return firebaseMetrics.record(
+				"auth.importUsers", Mono.fromCallable(() -> firebaseAuth.getObject()
+						.importUsers(importRecords, IMPORT_OPTIONS))
+						.subscribeOn(firebaseScheduler)
+		)
+				.map(result -> {
+					for (int i = 0; i < records.size(); i++) {
+						results[positions.get(i)] = result(
+								chunk, positions.get(i), records.get(i)
+										.uid(),
+								HttpStatus.OK, "User successfully imported."
+						);
+					}
+					// Error indexes refer to the list sent to Firebase
+					for (ErrorInfo error : result.getErrors()) {
+						int position = positions.get(error.getIndex());
+						results[position] = result(chunk, position, null, HttpStatus.BAD_REQUEST, error.getReason());
+					}
+					return Arrays.asList(results);
+				});
+	}
+
+	/**
+	 * The lower case emails among {@code identifiers} that already have a user.
+	 */
+	private Mono<Set<String>> existingEmails(List<UserIdentifier> identifiers) {
+		List<List<UserIdentifier>> lookups = new ArrayList<>();
+		for (int i = 0; i < identifiers.size(); i += MAX_LOOKUP_SIZE) {
+			lookups.add(identifiers.subList(i, Math.min(i + MAX_LOOKUP_SIZE, identifiers.size())));
+		}
+
+		return Flux.fromIterable(lookups)
+				.concatMap(
+						lookup -> firebaseMetrics.record(
+								"auth.getUsers", Mono.fromCallable(() -> firebaseAuth.getObject()
+										.getUsers(lookup))
+										.subscribeOn(firebaseScheduler)
+						)
+				)
+				.flatMapIterable(GetUsersResult::getUsers)
+				.filter(user -> user.getEmail() != null)
+				.map(
+						user -> user.getEmail()
+								.toLowerCase(Locale.ROOT)
+				)
+				.collect(Collectors.toSet());
+	}
+
+	/**
+	 * The reason a user can't be imported, or {@code null}.
+	 */
+	private static String validate(UserDto userDto) {
+		if (userDto.getId() != null) { return "The id is assigned by the server"; }
+		if (
+			userDto.getEmail() == null || userDto.getEmail()
+					.isBlank()
+		) { return "The email is required"; }
+
+		if (userDto.getPasswordHash() != null) {
+			return BCRYPT_HASH.matcher(userDto.getPasswordHash())
+					.matches() ? null : "The password hash must be a bcrypt hash";
+		}
+		// An account without any credential could never sign in with its email
+		if (userDto.getPassword() == null) { return "A password or a password hash is required"; }
+		// Same minimum as a single registration
+		if (
+			userDto.getPassword()
+					.length() < 6
+		) { return "The password must be at least 6 characters long"; }
+		return null;
+	}
+
+	/**
+	 * The Firebase record of a valid user, with a new uid.
+	 */
+	private Record toRecord(UserDto userDto) {
+		String passwordHash = (userDto.getPasswordHash() != null) ? userDto.getPasswordHash()
+				: BCrypt.hashpw(userDto.getPassword(), BCrypt.gensalt(bcryptStrength));
+
+		String uid = UUID.randomUUID()
+				.toString()
+				.replace("-", "");
+
+		ImportUserRecord importRecord = ImportUserRecord.builder()
+				.setUid(uid)
+				.setEmail(userDto.getEmail())
+				.setEmailVerified(true)
+				.setPasswordHash(passwordHash.getBytes(StandardCharsets.US_ASCII))
+				.build();
+		return new Record(uid, importRecord);
+	}
+
+	private static String email(UserDto userDto) {
+		return userDto.getEmail()
+				.toLowerCase(Locale.ROOT);
+	}
+
+	private static BatchItemResultDto result(
+			List<Tuple2<Long, UserDto>> chunk, int position, String uid, HttpStatus status, String message
+	) {
+		return new BatchItemResultDto(
+				chunk.get(position)
+						.getT1(),
+				uid, status.value(), message
+		);
+	}
+
+	private record Record(String uid, ImportUserRecord importRecord) {}
 }
@@ -1,46 +1,121 @@
 package com.nosetr.video.hub.service.impl;
 
+import java.time.DateTimeException;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.temporal.WeekFields;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Locale;
-import java.util.concurrent.ExecutionException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
-import com.google.api.core.ApiFuture;
-import com.google.cloud.firestore.DocumentReference;
-import com.google.cloud.firestore.Firestore;
-import com.google.cloud.firestore.QueryDocumentSnapshot;
-import com.google.cloud.firestore.QuerySnapshot;
-import com.google.firebase.cloud.FirestoreClient;
+import com.nosetr.video.hub.dto.BatchItemResultDto;
 import com.nosetr.video.hub.dto.ScoreDto;
+import com.nosetr.video.hub.dto.UserStatsDto;
 import com.nosetr.video.hub.dto.VideoDto;
+import com.nosetr.video.hub.dto.VideoEventDto;
+import com.nosetr.video.hub.dto.VideoPageDto;
 import com.nosetr.video.hub.dto.VideoResponseDto;
+import com.nosetr.video.hub.dto.VideoSummaryDto;
+import com.nosetr.video.hub.dto.YearStatsDto;
+import com.nosetr.video.hub.repository.RatingCoalescer;
+import com.nosetr.video.hub.repository.VideoRepository;
+import com.nosetr.video.hub.repository.VideoWritePipeline;
+import com.nosetr.video.hub.repository.WriteQueueFullException;
 import com.nosetr.video.hub.service.VideoService;
-import com.nosetr.video.hub.util.ApiFutureUtil;
+import com.nosetr.video.hub.util.CursorUtil;
+import com.nosetr.video.hub.util.VideoDateUtil;
+import com.nosetr.video.hub.util.VideoFields;
+import com.nosetr.video.hub.util.VideoValidator;
+import com.nosetr.video.hub.view.LeaderboardIndex;
+import com.nosetr.video.hub.view.TimeRangeIndex;
+import com.nosetr.video.hub.view.TimeRangeIndex.Reservation;
+import com.nosetr.video.hub.view.TitleSearchIndex;
+import com.nosetr.video.hub.view.UserStatsIndex;
+import com.nosetr.video.hub.view.VideoFeed;
+import com.nosetr.video.hub.view.VideoView;
+import com.nosetr.video.hub.view.WeeklyRollupIndex;
 
+import lombok.RequiredArgsConstructor;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 
 @Service
+@RequiredArgsConstructor
 public class VideoServiceImpl implements VideoService {
 
-	private static final Firestore db = FirestoreClient.getFirestore();
+	private static final int DEFAULT_PAGE_SIZE = 100;
+	private static final int MAX_PAGE_SIZE = 500;
+	private static final int MAX_LEADERBOARD_SIZE = 100;
+	private static final int MAX_SEARCH_RESULTS = 100;
+	private static final Comparator<VideoResponseDto> BY_DAY_DESCENDING = Comparator
+			.comparing(VideoResponseDto::getEpochDay, Comparator.nullsFirst(Comparator.naturalOrder()))
+			.thenComparing(VideoResponseDto::getId)
+			.reversed();
+
+	private final VideoRepository videoRepository;
+	private final VideoWritePipeline videoWritePipeline;
+	private final RatingCoalescer ratingCoalescer;
+	private final VideoView videoView;
+	private final LeaderboardIndex leaderboardIndex;
+	private final VideoFeed videoFeed;
+	private final UserStatsIndex userStatsIndex;
+	private final TitleSearchIndex titleSearchIndex;
+	private final TimeRangeIndex timeRangeIndex;
+	private final WeeklyRollupIndex weeklyRollupIndex;
+
+	@Value("${videos.batch.size:500}")
+	private int batchSize;
+	@Value("${videos.batch.concurrency:4}")
+	private int batchConcurrency;
 
 	@Override
 	public Mono<ResponseEntity<String>> setVideo(VideoDto videoDto) {
 
 		return Mono.fromCallable(() -> {
-			db.collection("videos")
-					.add(videoDto);
-			return "Video successfully set.";
+			VideoDateUtil.applyDateFields(videoDto);
+			VideoDateUtil.applyTimeFields(videoDto);
+			return videoDto;
 		})
-				.map(message -> ResponseEntity.ok(message)) // 200 OK
+				.flatMap(video -> {
+					Reservation reservation = reserve(video);
+					if (reservation.getConflict() != null) {
+						return Mono.just(
+								ResponseEntity.status(HttpStatus.CONFLICT)
+										.body(overlapMessage(reservation.getConflict()))
+						); // 409 Conflict
+					}
+
+					return videoWritePipeline.submit(video)
+							.doOnNext(reservation::written)
+							.doFinally(signal -> reservation.release())
+							.map(id -> ResponseEntity.ok("Video successfully set.")); // 200 OK
+				})
+				.onErrorResume(WriteQueueFullException.class, e -> {
+					return Mono.just(
+							ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+									.header(
+											HttpHeaders.RETRY_AFTER, String.valueOf(
+													Math.max(
+															e.getRetryAfter()
+																	.toSeconds(),
+															1
+													)
+											)
+									)
+									.body(e.getMessage())
+					); // 429 Too Many Requests
+				})
 				.onErrorResume(e -> {
 					return Mono.just(
 							ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -49,95 +124,364 @@ public class VideoServiceImpl implements VideoService {
 				});
 	}
 
+	/**
+	 * Reserves the time of the video until the view shows it, unless it overlaps
+	 * a video of the same user, shown or still being written. Nothing is checked
+	 * while the view is not ready.
+	 */
+	private Reservation reserve(VideoDto videoDto) {
+		if (!videoView.isReady() || videoDto.getFromMinute() == null || videoDto.getTillMinute() == null) {
+			return timeRangeIndex.unchecked();
+		}
+
+		return timeRangeIndex.reserve(
+				new VideoResponseDto().toBuilder()
+						.userId(videoDto.getUserId())
+						.title(videoDto.getTitle())
+						.day(videoDto.getDay())
+						.from(videoDto.getFrom())
+						.till(videoDto.getTill())
+						.epochDay(videoDto.getEpochDay())
+						.fromMinute(videoDto.getFromMinute())
+						.tillMinute(videoDto.getTillMinute())
+						.build()
+		);
+	}
+
+	/**
+	 * An earlier video of the same chunk and user overlapping the video, or
+	 * {@code null}. Checked even while the view is not ready.
+	 */
+	private static VideoDto findOverlap(List<VideoDto> accepted, VideoDto videoDto) {
+		if (videoDto.getFromMinute() == null || videoDto.getTillMinute() == null) { return null; }
+
+		for (VideoDto other : accepted) {
+			if (
+				other.getFromMinute() != null && other.getTillMinute() != null
+						&& Objects.equals(other.getUserId(), videoDto.getUserId())
+						&& other.getEpochDay()
+								.equals(videoDto.getEpochDay())
+						&& other.getFromMinute() < videoDto.getTillMinute() && other.getTillMinute() > videoDto.getFromMinute()
+			) { return other; }
+		}
+		return null;
+	}
+
+	private static String overlapMessage(String title, String from, String till) {
+		return "The time overlaps the video \"" + title + "\" (" + from + "-" + till + ") of the same user";
+	}
+
+	private static String overlapMessage(VideoResponseDto overlapping) {
+		return overlapMessage(overlapping.getTitle(), overlapping.getFrom(), overlapping.getTill());
+	}
+
 	@Override
-	public Mono<Object> addRating(String videosId, ScoreDto scoreDto) {
-		DocumentReference reference = db.collection("videos")
-				.document(videosId);
+	public Flux<BatchItemResultDto> setVideos(Flux<VideoDto> videoDtos) {
+		int chunkSize = Math.min(Math.max(batchSize, 1), VideoRepository.MAX_BATCH_SIZE);
 
-		return Mono.fromFuture(ApiFutureUtil.toCompletableFuture(reference.get()))
-				.flatMap(documentSnapshot -> {
-					if (!documentSnapshot.exists()) { return Mono.error(new RuntimeException("Videos not found.")); }
+		return videoDtos.index()
+				.buffer(chunkSize)
+				.flatMapSequential(this::setChunk, Math.max(batchConcurrency, 1))
+				.flatMapIterable(results -> results);
+	}
 
-					VideoDto videoDto = documentSnapshot.toObject(VideoDto.class);
+	/**
+	 * Writes the valid videos of one chunk in a single batch.
+	 */
+	private Mono<List<BatchItemResultDto>> setChunk(List<Tuple2<Long, VideoDto>> chunk) {
+		BatchItemResultDto[] results = new BatchItemResultDto[chunk.size()];
+		List<Integer> positions = new ArrayList<>(chunk.size());
+		List<VideoDto> valid = new ArrayList<>(chunk.size());
+		List<Reservation> reservations = new ArrayList<>(chunk.size());
 
-					if (
-						scoreDto.getVoter()
-								.equals(videoDto.getUserId())
-					) {
-						return Mono.error(
-								new RuntimeException("You can't vote for yourself.")
-						);
-					}
+		for (int i = 0; i < chunk.size(); i++) {
+			long index = chunk.get(i)
+					.getT1();
+			VideoDto videoDto = chunk.get(i)
+					.getT2();
 
-					List<ScoreDto> ratings = (videoDto.getRatings() == null)
-							? new ArrayList<>()
-							: videoDto.getRatings();
+			String error = VideoValidator.validate(videoDto);
+			if (error != null) {
+				results[i] = new BatchItemResultDto(index, null, HttpStatus.BAD_REQUEST.value(), error);
+				continue;
+			}
 
-					if (!ratings.isEmpty()) {
-						boolean userAlreadyVoted = ratings.stream()
-								.anyMatch(
-										r -> r.getVoter()
-												.equals(scoreDto.getVoter())
-								);
+			VideoDateUtil.applyDateFields(videoDto);
+			VideoDateUtil.applyTimeFields(videoDto);
 
-						if (userAlreadyVoted) { return Mono.error(new RuntimeException("User has already voted.")); }
-					}
+			VideoDto earlier = findOverlap(valid, videoDto);
+			if (earlier != null) {
+				results[i] = new BatchItemResultDto(
+						index, null, HttpStatus.CONFLICT.value(),
+						overlapMessage(earlier.getTitle(), earlier.getFrom(), earlier.getTill())
+				);
+				continue;
+			}
+
+			Reservation reservation = reserve(videoDto);
+			if (reservation.getConflict() != null) {
+				results[i] = new BatchItemResultDto(
+						index, null, HttpStatus.CONFLICT.value(), overlapMessage(reservation.getConflict())
+				);
+				continue;
+			}
+
+			positions.add(i);
+			valid.add(videoDto);
+			reservations.add(reservation);
+		}
+
+		if (valid.isEmpty()) { return Mono.just(Arrays.asList(results)); }
 
-					ratings.add(scoreDto);
-					videoDto.setRatings(ratings);
-					
-					int size = ratings.size();
-					int score = 0;
-					for (ScoreDto rating : ratings) {
-						score += rating.getScore();
+		return videoRepository.saveAll(valid)
+				.doOnNext(ids -> {
+					for (int i = 0; i < ids.size(); i++) {
+						reservations.get(i)
+								.written(ids.get(i));
 					}
-					
-					videoDto.setAverageRating(score / size);
+				})
+				.doFinally(signal -> reservations.forEach(Reservation::release))
+				.map(ids -> {
+					for (int i = 0; i < ids.size(); i++) {
+						int position = positions.get(i);
+						results[position] = new BatchItemResultDto(
+								chunk.get(position)
+										.getT1(),
+								ids.get(i), HttpStatus.OK.value(), "Video successfully set."
+						);
+					}
+					return Arrays.asList(results);
+				})
+				.onErrorResume(e -> {
+					for (int position : positions) {
+						results[position] = new BatchItemResultDto(
+								chunk.get(position)
+										.getT1(),
+								null, HttpStatus.INTERNAL_SERVER_ERROR.value(), "Failed to set video: " + e.getMessage()
+						);
+					}
+					return Mono.just(Arrays.asList(results));
+				});
+	}
+
+	@Override
+	public Mono<Object> addRating(String videosId, ScoreDto scoreDto) {
+		if (scoreDto.getScore() == null) { return Mono.error(new RuntimeException("Score is required.")); }
 
-					return Mono.fromFuture(ApiFutureUtil.toCompletableFuture(reference.set(videoDto)))
-							.thenReturn("Rating added successfully");
+		return ratingCoalescer.submit(videosId, scoreDto)
+				.flatMap(outcome -> switch (outcome) {
+					case ADDED -> Mono.just("Rating added successfully");
+					case NOT_FOUND -> Mono.error(new RuntimeException("Videos not found."));
+					case OWN_VIDEO -> Mono.error(new RuntimeException("You can't vote for yourself."));
+					case ALREADY_VOTED -> Mono.error(new RuntimeException("User has already voted."));
 				});
 	}
 
 	@Override
-	public Flux<VideoResponseDto> getAll() throws InterruptedException, ExecutionException {
+	public Flux<VideoResponseDto> getAll() {
+		if (videoView.isReady()) { return Flux.fromIterable(videoView.getAll()); }
+
+		return streamAll(DEFAULT_PAGE_SIZE);
+	}
+
+	@Override
+	public Mono<VideoPageDto> getPage(int limit, String cursor) {
+		int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+
+		String lastId = null;
+		if (cursor != null && !cursor.isEmpty()) {
+			try {
+				lastId = CursorUtil.decode(cursor);
+			} catch (IllegalArgumentException e) {
+				return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor"));
+			}
+		}
 
-		ApiFuture<QuerySnapshot> apiFuture = db.collection("videos")
-				.get();
-		List<QueryDocumentSnapshot> documents = apiFuture.get()
-				.getDocuments();
+		Mono<List<VideoResponseDto>> items = videoView.isReady()
+				? Mono.just(videoView.getPage(pageSize, lastId))
+				: videoRepository.findPage(pageSize, lastId);
+
+		return items.map(videos -> {
+			String nextCursor = (videos.size() < pageSize)
+					? null
+					: CursorUtil.encode(
+							videos.get(videos.size() - 1)
+									.getId()
+					);
+			return new VideoPageDto(videos, nextCursor);
+		});
+	}
+
+	@Override
+	public Flux<VideoResponseDto> streamAll(int pageSize) {
+		if (videoView.isReady()) { return Flux.fromIterable(videoView.getAll()); }
+
+		return streamFromRepository(Math.min(Math.max(pageSize, 1), MAX_PAGE_SIZE), null);
+	}
+
+	/**
+	 * Reads the collection page by page, the next page is only requested once
+	 * the previous one has been consumed.
+	 */
+	private Flux<VideoResponseDto> streamFromRepository(int pageSize, Set<String> fields) {
+		return videoRepository.findPage(pageSize, null, fields)
+				.expand(
+						videos -> (videos.size() < pageSize)
+								? Mono.empty()
+								: videoRepository.findPage(
+										pageSize, videos.get(videos.size() - 1)
+												.getId(),
+										fields
+								)
+				)
+				.concatMapIterable(videos -> videos, 1);
+	}
 
-		return Flux.fromStream(
-				documents.stream()
-						.map(doc -> {
-							VideoResponseDto dto = doc.toObject(VideoResponseDto.class);
-							dto.setId(doc.getId());
-							return dto;
-						})
+	@Override
+	public Flux<Map<String, Object>> getAll(List<String> fields) {
+		Set<String> fieldSet;
+		try {
+			fieldSet = VideoFields.parse(fields);
+		} catch (IllegalArgumentException e) {
+			return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage()));
+		}
+
+		Flux<VideoResponseDto> videos = videoView.isReady()
+				? Flux.fromIterable(videoView.getAll())
+				: streamFromRepository(DEFAULT_PAGE_SIZE, fieldSet);
+
+		return videos.map(video -> VideoFields.project(video, fieldSet));
+	}
+
+	@Override
+	public Flux<VideoSummaryDto> getAllSummaries() {
+		Flux<VideoResponseDto> videos = videoView.isReady()
+				? Flux.fromIterable(videoView.getAll())
+				: streamFromRepository(DEFAULT_PAGE_SIZE, VideoFields.SUMMARY);
+
+		return videos.map(VideoFields::toSummary);
+	}
+
+	@Override
+	public Mono<List<VideoResponseDto>> getVideosForWeek(int weekOfYear, int year) {
+		return findWeek(weekOfYear, year, null);
+	}
+
+	@Override
+	public Mono<List<Map<String, Object>>> getVideosForWeek(int weekOfYear, int year, List<String> fields) {
+		Set<String> fieldSet;
+		try {
+			fieldSet = VideoFields.parse(fields);
+		} catch (IllegalArgumentException e) {
+			return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage()));
+		}
+
+		return findWeek(weekOfYear, year, fieldSet).map(
+				videos -> videos.stream()
+						.map(video -> VideoFields.project(video, fieldSet))
+						.toList()
 		);
+	}
 
+	@Override
+	public Mono<List<VideoSummaryDto>> getSummariesForWeek(int weekOfYear, int year) {
+		return findWeek(weekOfYear, year, VideoFields.SUMMARY).map(
+				videos -> videos.stream()
+						.map(VideoFields::toSummary)
+						.toList()
+		);
+	}
+
+	private Mono<List<VideoResponseDto>> findWeek(int weekOfYear, int year, Set<String> fields) {
+		long firstDay;
+		try {
+			firstDay = VideoDateUtil.firstEpochDayOfWeek(year, weekOfYear);
+		} catch (IllegalArgumentException | DateTimeException e) {
+			return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage()));
+		}
+
+		if (videoView.isReady()) { return Mono.just(videoView.getByDayRange(firstDay, firstDay + 6)); }
+
+		return videoRepository.findByEpochDayBetween(firstDay, firstDay + 6, fields);
 	}
 
 	@Override
-	public Mono<List<VideoResponseDto>> getVideosForWeek(int weekOfYear, int year) throws InterruptedException, ExecutionException {
-		DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+	public Mono<List<VideoResponseDto>> getTopVideos(Integer year, Integer week, int limit) {
+		if (!videoView.isReady()) { return Mono.error(viewUnavailable()); }
 
-		return getAll()
-				.filter(video -> {
-					LocalDate date = LocalDate.parse(video.getDay(), formatter);
-					int videoWeek = date.get(
-							WeekFields.of(Locale.getDefault())
-									.weekOfYear()
-					);
-					int videoYear = date.getYear();
-					return videoWeek == weekOfYear && videoYear == year;
-				})
-				.sort((r1, r2) -> {
-					LocalDate date1 = LocalDate.parse(r1.getDay(), formatter);
-					LocalDate date2 = LocalDate.parse(r2.getDay(), formatter);
-					return date1.compareTo(date2);
-				})
-				.collectList();
+		int size = Math.min(Math.max(limit, 1), MAX_LEADERBOARD_SIZE);
+
+		if (year == null) { return Mono.just(leaderboardIndex.top(size)); }
+		if (week == null) { return Mono.just(leaderboardIndex.topOfYear(year, size)); }
+		return Mono.just(leaderboardIndex.topOfWeek(year, week, size));
+	}
+
+	@Override
+	public Flux<ServerSentEvent<VideoEventDto>> streamEvents() {
+		if (!videoView.isReady()) { return Flux.error(viewUnavailable()); }
+
+		return videoFeed.subscribe();
+	}
+
+	@Override
+	public Mono<List<VideoResponseDto>> getVideosByUser(String userId) {
+		if (!videoView.isReady()) { return Mono.error(viewUnavailable()); }
+
+		List<VideoResponseDto> videos = new ArrayList<>(videoView.getByUser(userId));
+		videos.sort(BY_DAY_DESCENDING);
+		return Mono.just(videos);
+	}
+
+	@Override
+	public Mono<UserStatsDto> getUserStats(String userId) {
+		if (!videoView.isReady()) { return Mono.error(viewUnavailable()); }
+
+		return Mono.just(userStatsIndex.get(userId));
+	}
+
+	@Override
+	public Mono<YearStatsDto> getYearStats(int year) {
+		if (!videoView.isReady()) { return Mono.error(viewUnavailable()); }
+
+		return Mono.just(weeklyRollupIndex.get(year));
+	}
+
+	@Override
+	public Mono<List<VideoResponseDto>> search(String query, int limit) {
+		if (query == null || query.isBlank()) {
+			return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "The query must not be empty"));
+		}
+		if (!videoView.isReady()) { return Mono.error(viewUnavailable()); }
+
+		return Mono.just(titleSearchIndex.search(query, Math.min(Math.max(limit, 1), MAX_SEARCH_RESULTS)));
+	}
+
+	@Override
+	public Mono<List<VideoResponseDto>> getVideosForTimeRange(String day, String from, String till) {
+		long epochDay;
+		int fromMinute;
+		int tillMinute;
+		try {
+			epochDay = LocalDate.parse(day)
+					.toEpochDay();
+			fromMinute = (from == null) ? 0 : VideoDateUtil.minuteOfDay(from);
+			tillMinute = (till == null) ? TimeRangeIndex.MINUTES_PER_DAY : VideoDateUtil.minuteOfDay(till);
+		} catch (DateTimeException e) {
+			return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid day or time"));
+		}
+		if (tillMinute < fromMinute) {
+			return Mono.error(
+					new ResponseStatusException(HttpStatus.BAD_REQUEST, "The end time must not be before the start time")
+			);
+		}
+		if (!videoView.isReady()) { return Mono.error(viewUnavailable()); }
+
+		// A single point in time covers its minute
+		return Mono.just(timeRangeIndex.overlapping(epochDay, fromMinute, Math.max(tillMinute, fromMinute + 1)));
+	}
+
+	private static ResponseStatusException viewUnavailable() {
+		return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "The video view is not ready");
 	}
 
 }
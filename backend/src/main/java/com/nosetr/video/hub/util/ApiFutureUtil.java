@@ -1,24 +1,54 @@
 package com.nosetr.video.hub.util;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 import com.google.api.core.ApiFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import reactor.core.publisher.Mono;
 
 /**
  * Helper function to convert ApiFuture to CompletableFuture
  */
 public class ApiFutureUtil {
-	public static <T> CompletableFuture<T> toCompletableFuture(ApiFuture<T> apiFuture) {
+
+	/**
+	 * The future is completed on the given executor, so operators downstream of it
+	 * never run on gRPC threads. If the executor rejects the completion (its
+	 * queue is full), it runs on the thread completing the call instead: Guava
+	 * would only log the rejection and the future would never complete, and the
+	 * call itself (e.g. a write) has already happened.
+	 */
+	public static <T> CompletableFuture<T> toCompletableFuture(ApiFuture<T> apiFuture, Executor executor) {
 		CompletableFuture<T> completableFuture = new CompletableFuture<>();
-		apiFuture.addListener(
-				() -> {
-					try {
-						completableFuture.complete(apiFuture.get());
-					} catch (Exception e) {
-						completableFuture.completeExceptionally(e);
-					}
-				}, Runnable::run
-		);
+		Runnable complete = () -> {
+			try {
+				completableFuture.complete(apiFuture.get());
+			} catch (ExecutionException e) {
+				completableFuture.completeExceptionally(e.getCause());
+			} catch (Exception e) {
+				completableFuture.completeExceptionally(e);
+			}
+		};
+
+		apiFuture.addListener(() -> {
+			try {
+				executor.execute(complete);
+			} catch (RejectedExecutionException e) {
+				complete.run();
+			}
+		}, MoreExecutors.directExecutor());
 		return completableFuture;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Lazily starts the call on subscription and completes on the given executor.
+	 */
+	public static <T> Mono<T> toMono(Supplier<ApiFuture<T>> apiFutureSupplier, Executor executor) {
+		return Mono.fromFuture(() -> toCompletableFuture(apiFutureSupplier.get(), executor));
+	}
+}
@@ -0,0 +1,30 @@
+package com.nosetr.video.hub.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Helper functions to encode and decode opaque pagination cursors.
+ * A cursor wraps the id of the last document of a page.
+ */
+public class CursorUtil {
+
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder()
+			.withoutPadding();
+	private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+	public static String encode(String documentId) {
+		return ENCODER.encodeToString(documentId.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the cursor was not created by {@link #encode(String)}
+	 */
+	public static String decode(String cursor) {
+		String documentId = new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+		if (documentId.isEmpty() || documentId.contains("/")) {
+			throw new IllegalArgumentException("Invalid cursor");
+		}
+		return documentId;
+	}
+}
@@ -0,0 +1,70 @@
+package com.nosetr.video.hub.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Latency, outcome and in-flight count of Firebase SDK calls, by operation:
+ * the {@code firebase.calls} timer (tagged with outcome and exception, so it
+ * also counts errors) and the {@code firebase.calls.active} gauge.
+ */
+@Component
+@RequiredArgsConstructor
+public class FirebaseMetrics {
+
+	private final MeterRegistry meterRegistry;
+	private final Map<String, AtomicInteger> active = new ConcurrentHashMap<>();
+
+	/**
+	 * Times each subscription to {@code call}.
+	 */
+	public <T> Mono<T> record(String operation, Mono<T> call) {
+		AtomicInteger inFlight = active(operation);
+
+		return Mono.defer(() -> {
+			Timer.Sample sample = Timer.start(meterRegistry);
+			inFlight.incrementAndGet();
+
+			return call.doOnSuccess(value -> stop(sample, operation, "success", "none"))
+					.doOnError(
+							e -> stop(
+									sample, operation, "error", e.getClass()
+											.getSimpleName()
+							)
+					)
+					.doOnCancel(() -> stop(sample, operation, "cancelled", "none"))
+					.doFinally(signal -> inFlight.decrementAndGet());
+		});
+	}
+
+	private AtomicInteger active(String operation) {
+		return active.computeIfAbsent(operation, key -> {
+			AtomicInteger inFlight = new AtomicInteger();
+			Gauge.builder("firebase.calls.active", inFlight, AtomicInteger::get)
+					.description("Firebase SDK calls in flight")
+					.tag("operation", key)
+					.register(meterRegistry);
+			return inFlight;
+		});
+	}
+
+	private void stop(Timer.Sample sample, String operation, String outcome, String exception) {
+		sample.stop(
+				Timer.builder("firebase.calls")
+						.description("Firebase SDK calls")
+						.tag("operation", operation)
+						.tag("outcome", outcome)
+						.tag("exception", exception)
+						.register(meterRegistry)
+		);
+	}
+}
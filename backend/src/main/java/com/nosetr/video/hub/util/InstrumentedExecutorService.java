@@ -0,0 +1,88 @@
+package com.nosetr.video.hub.util;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ExecutorService wrapper that counts queued, active, completed and rejected tasks.
+ */
+public class InstrumentedExecutorService extends AbstractExecutorService {
+
+	private final ExecutorService delegate;
+
+	private final AtomicInteger queued = new AtomicInteger();
+	private final AtomicInteger active = new AtomicInteger();
+	private final LongAdder completed = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+
+	public InstrumentedExecutorService(ExecutorService delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		queued.incrementAndGet();
+		try {
+			delegate.execute(() -> {
+				queued.decrementAndGet();
+				active.incrementAndGet();
+				try {
+					command.run();
+				} finally {
+					active.decrementAndGet();
+					completed.increment();
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			queued.decrementAndGet();
+			rejected.increment();
+			throw e;
+		}
+	}
+
+	public int getQueuedTasks() {
+		return queued.get();
+	}
+
+	public int getActiveTasks() {
+		return active.get();
+	}
+
+	public long getCompletedTasks() {
+		return completed.sum();
+	}
+
+	public long getRejectedTasks() {
+		return rejected.sum();
+	}
+
+	@Override
+	public void shutdown() {
+		delegate.shutdown();
+	}
+
+	@Override
+	public List<Runnable> shutdownNow() {
+		return delegate.shutdownNow();
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return delegate.isShutdown();
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return delegate.isTerminated();
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		return delegate.awaitTermination(timeout, unit);
+	}
+}
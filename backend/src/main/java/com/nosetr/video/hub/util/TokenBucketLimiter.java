@@ -0,0 +1,66 @@
+package com.nosetr.video.hub.util;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Token buckets keyed by client, implemented as the equivalent generic cell
+ * rate algorithm: each bucket is a single {@code AtomicLong} holding the
+ * theoretical arrival time, updated with CAS, so admission takes no lock.
+ */
+public class TokenBucketLimiter {
+
+	private final long emissionIntervalNanos;
+	private final long burstToleranceNanos;
+	private final Cache<String, AtomicLong> buckets;
+	private final LongSupplier nanoTime;
+
+	public TokenBucketLimiter(int capacity, double refillPerSecond, long maxKeys) {
+		this(capacity, refillPerSecond, maxKeys, System::nanoTime);
+	}
+
+	/**
+	 * With the given clock (nanoseconds, like {@link System#nanoTime()}), e.g. in tests.
+	 */
+	TokenBucketLimiter(int capacity, double refillPerSecond, long maxKeys, LongSupplier nanoTime) {
+		if (capacity < 1 || refillPerSecond <= 0) {
+			throw new IllegalArgumentException("Capacity and refill rate must be positive");
+		}
+
+		this.nanoTime = nanoTime;
+		this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+		this.burstToleranceNanos = emissionIntervalNanos * (capacity - 1);
+		// A bucket idle for longer than a full refill is full again, drop it
+		this.buckets = Caffeine.newBuilder()
+				.maximumSize(maxKeys)
+				.expireAfterAccess(Duration.ofNanos(emissionIntervalNanos * capacity))
+				.ticker(nanoTime::getAsLong)
+				.build();
+	}
+
+	/**
+	 * Takes one token for {@code key}.
+	 *
+	 * @return {@link Duration#ZERO} if admitted, otherwise the time until a
+	 *         token is available
+	 */
+	public Duration tryAcquire(String key) {
+		AtomicLong arrival = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+		long now = nanoTime.getAsLong();
+
+		while (true) {
+			long current = arrival.get();
+			long theoretical = (current == Long.MIN_VALUE || current - now < 0) ? now : current;
+
+			long wait = theoretical - now - burstToleranceNanos;
+			if (wait > 0) { return Duration.ofNanos(wait); }
+
+			if (arrival.compareAndSet(current, theoretical + emissionIntervalNanos)) { return Duration.ZERO; }
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package com.nosetr.video.hub.util;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.IsoFields;
+
+import com.nosetr.video.hub.dto.VideoDto;
+import com.nosetr.video.hub.dto.VideoResponseDto;
+
+/**
+ * Helper functions for the locale-independent ISO-8601 date fields stored with
+ * every video.
+ */
+public class VideoDateUtil {
+
+	/**
+	 * Sets {@code isoYear}, {@code isoWeek} and {@code epochDay} from the video's
+	 * {@code day} (yyyy-MM-dd).
+	 *
+	 * @throws java.time.format.DateTimeParseException if {@code day} is not a valid date
+	 */
+	public static void applyDateFields(VideoDto videoDto) {
+		LocalDate date = LocalDate.parse(videoDto.getDay());
+
+		videoDto.setIsoYear(date.get(IsoFields.WEEK_BASED_YEAR));
+		videoDto.setIsoWeek(date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+		videoDto.setEpochDay(date.toEpochDay());
+	}
+
+	/**
+	 * Same for a stored video, e.g. one written before these fields existed.
+	 *
+	 * @throws java.time.format.DateTimeParseException if {@code day} is not a valid date
+	 */
+	public static void applyDateFields(VideoResponseDto video) {
+		LocalDate date = LocalDate.parse(video.getDay());
+
+		video.setIsoYear(date.get(IsoFields.WEEK_BASED_YEAR));
+		video.setIsoWeek(date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+		video.setEpochDay(date.toEpochDay());
+	}
+
+	/**
+	 * Sets {@code fromMinute} and {@code tillMinute} from the video's {@code from}
+	 * and {@code till} (HH:mm), {@code null} where a time is missing.
+	 *
+	 * @throws java.time.format.DateTimeParseException if a time is not valid
+	 */
+	public static void applyTimeFields(VideoDto videoDto) {
+		videoDto.setFromMinute(minuteOfDay(videoDto.getFrom()));
+		videoDto.setTillMinute(minuteOfDay(videoDto.getTill()));
+	}
+
+	/**
+	 * Minutes since midnight of a time (HH:mm), {@code null} for {@code null}.
+	 *
+	 * @throws java.time.format.DateTimeParseException if the time is not valid
+	 */
+	public static Integer minuteOfDay(String time) {
+		if (time == null) { return null; }
+
+		LocalTime localTime = LocalTime.parse(time);
+		return localTime.getHour() * 60 + localTime.getMinute();
+	}
+
+	/**
+	 * Epoch day of a date (yyyy-MM-dd), {@code null} for {@code null}.
+	 *
+	 * @throws java.time.format.DateTimeParseException if the date is not valid
+	 */
+	public static Long epochDay(String day) {
+		if (day == null) { return null; }
+
+		return LocalDate.parse(day)
+				.toEpochDay();
+	}
+
+	/**
+	 * Returns the epoch day of the Monday of the given ISO week.
+	 *
+	 * @throws IllegalArgumentException if the week does not exist in that year
+	 */
+	public static long firstEpochDayOfWeek(int isoYear, int isoWeek) {
+		// 4 January is always in week 1 of its week-based year
+		LocalDate reference = LocalDate.of(isoYear, 1, 4);
+
+		if (
+			!IsoFields.WEEK_OF_WEEK_BASED_YEAR.rangeRefinedBy(reference)
+					.isValidValue(isoWeek)
+		) {
+			throw new IllegalArgumentException("Invalid week " + isoWeek + " for year " + isoYear);
+		}
+
+		return reference.with(IsoFields.WEEK_OF_WEEK_BASED_YEAR, isoWeek)
+				.with(DayOfWeek.MONDAY)
+				.toEpochDay();
+	}
+}
@@ -0,0 +1,86 @@
+package com.nosetr.video.hub.util;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.nosetr.video.hub.dto.VideoResponseDto;
+import com.nosetr.video.hub.dto.VideoSummaryDto;
+
+/**
+ * Sparse fieldsets ({@code ?fields=}) and the summary projection of videos.
+ * The names are the stored field names, so they can be passed to Firestore
+ * {@code select()} as they are. The id is always returned.
+ */
+public class VideoFields {
+
+	public static final String ID = "id";
+
+	public static final Set<String> ALL = Set.of(
+			ID, "userId", "title", "day", "from", "till", "ratings", "creator", "ratingCount", "ratingSum",
+			"averageRating", "isoYear", "isoWeek", "epochDay", "fromMinute", "tillMinute"
+	);
+
+	public static final Set<String> SUMMARY = Set.of("title", "day", "from", "till", "ratingCount", "averageRating");
+
+	/**
+	 * Validates the requested field names, keeping their order.
+	 *
+	 * @throws IllegalArgumentException for an unknown field
+	 */
+	public static Set<String> parse(List<String> fields) {
+		Set<String> parsed = new LinkedHashSet<>();
+		for (String field : fields) {
+			String name = field.trim();
+			if (name.isEmpty()) { continue; }
+			if (!ALL.contains(name)) { throw new IllegalArgumentException("Unknown field: " + name); }
+			parsed.add(name);
+		}
+		return parsed;
+	}
+
+	/**
+	 * The stored fields to read for a fieldset, i.e. without the document id.
+	 */
+	public static String[] storedFields(Set<String> fields) {
+		return fields.stream()
+				.filter(field -> !ID.equals(field))
+				.toArray(String[]::new);
+	}
+
+	public static Map<String, Object> project(VideoResponseDto video, Set<String> fields) {
+		Map<String, Object> projection = new LinkedHashMap<>();
+		projection.put(ID, video.getId());
+
+		for (String field : fields) {
+			switch (field) {
+				case "userId" -> projection.put(field, video.getUserId());
+				case "title" -> projection.put(field, video.getTitle());
+				case "day" -> projection.put(field, video.getDay());
+				case "from" -> projection.put(field, video.getFrom());
+				case "till" -> projection.put(field, video.getTill());
+				case "ratings" -> projection.put(field, video.getRatings());
+				case "creator" -> projection.put(field, video.getCreator());
+				case "ratingCount" -> projection.put(field, video.getRatingCount());
+				case "ratingSum" -> projection.put(field, video.getRatingSum());
+				case "averageRating" -> projection.put(field, video.getAverageRating());
+				case "isoYear" -> projection.put(field, video.getIsoYear());
+				case "isoWeek" -> projection.put(field, video.getIsoWeek());
+				case "epochDay" -> projection.put(field, video.getEpochDay());
+				case "fromMinute" -> projection.put(field, video.getFromMinute());
+				case "tillMinute" -> projection.put(field, video.getTillMinute());
+				default -> {}
+			}
+		}
+		return projection;
+	}
+
+	public static VideoSummaryDto toSummary(VideoResponseDto video) {
+		return new VideoSummaryDto(
+				video.getId(), video.getTitle(), video.getDay(), video.getFrom(), video.getTill(),
+				video.getRatingCount(), video.getAverageRating()
+		);
+	}
+}
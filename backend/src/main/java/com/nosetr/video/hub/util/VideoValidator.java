@@ -0,0 +1,41 @@
+package com.nosetr.video.hub.util;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+import com.nosetr.video.hub.dto.VideoDto;
+
+/**
+ * Validation shared by the single and the batch video endpoints.
+ */
+public class VideoValidator {
+
+	/**
+	 * Returns why the video can not be stored, or {@code null} if it is valid.
+	 */
+	public static String validate(VideoDto videoDto) {
+		if (videoDto.getDay() == null) { return "The date must have the format yyyy-MM-dd"; }
+
+		LocalDate day;
+		try {
+			day = LocalDate.parse(videoDto.getDay());
+		} catch (DateTimeParseException e) {
+			return "The date must have the format yyyy-MM-dd";
+		}
+
+		if (day.isAfter(LocalDate.now())) { return "The date can not be after today"; }
+
+		Integer from;
+		Integer till;
+		try {
+			from = VideoDateUtil.minuteOfDay(videoDto.getFrom());
+			till = VideoDateUtil.minuteOfDay(videoDto.getTill());
+		} catch (DateTimeParseException e) {
+			return "The time must have the format HH:mm";
+		}
+
+		if (from != null && till != null && till <= from) { return "The end time must be after the start time"; }
+
+		return null;
+	}
+}
@@ -0,0 +1,87 @@
+package com.nosetr.video.hub.view;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.springframework.stereotype.Component;
+
+import com.nosetr.video.hub.dto.VideoResponseDto;
+
+/**
+ * Rated videos ordered by average rating, overall, per ISO year and per ISO
+ * week. Kept up to date from the changes applied to the {@link VideoView}, so
+ * a top-N request only walks the first N entries.
+ */
+@Component
+public class LeaderboardIndex implements VideoChangeListener {
+
+	private static final Comparator<VideoResponseDto> BY_RATING = Comparator
+			.comparingDouble(VideoResponseDto::getAverageRating)
+			.thenComparingLong(VideoResponseDto::getRatingCount)
+			.reversed()
+			.thenComparing(VideoResponseDto::getId);
+
+	private final NavigableSet<VideoResponseDto> overall = new ConcurrentSkipListSet<>(BY_RATING);
+	private final Map<Integer, NavigableSet<VideoResponseDto>> byYear = new ConcurrentHashMap<>();
+	private final Map<Integer, NavigableSet<VideoResponseDto>> byWeek = new ConcurrentHashMap<>();
+
+	@Override
+	public void onVideoChanged(VideoResponseDto before, VideoResponseDto after) {
+		if (isRanked(before)) {
+			overall.remove(before);
+			remove(byYear, before.getIsoYear(), before);
+			remove(byWeek, weekKey(before.getIsoYear(), before.getIsoWeek()), before);
+		}
+
+		if (isRanked(after)) {
+			overall.add(after);
+			byYear.computeIfAbsent(after.getIsoYear(), k -> new ConcurrentSkipListSet<>(BY_RATING))
+					.add(after);
+			byWeek.computeIfAbsent(weekKey(after.getIsoYear(), after.getIsoWeek()), k -> new ConcurrentSkipListSet<>(BY_RATING))
+					.add(after);
+		}
+	}
+
+	public List<VideoResponseDto> top(int limit) {
+		return first(overall, limit);
+	}
+
+	public List<VideoResponseDto> topOfYear(int isoYear, int limit) {
+		return first(byYear.get(isoYear), limit);
+	}
+
+	public List<VideoResponseDto> topOfWeek(int isoYear, int isoWeek, int limit) {
+		return first(byWeek.get(weekKey(isoYear, isoWeek)), limit);
+	}
+
+	private static List<VideoResponseDto> first(NavigableSet<VideoResponseDto> ranking, int limit) {
+		if (ranking == null) { return List.of(); }
+
+		List<VideoResponseDto> videos = new ArrayList<>(limit);
+		for (VideoResponseDto video : ranking) {
+			if (videos.size() == limit) { break; }
+			videos.add(video);
+		}
+		return videos;
+	}
+
+	private static boolean isRanked(VideoResponseDto video) {
+		return video != null && video.getRatingCount() > 0 && video.getIsoYear() != null && video.getIsoWeek() != null;
+	}
+
+	private static void remove(Map<Integer, NavigableSet<VideoResponseDto>> rankings, int key, VideoResponseDto video) {
+		rankings.computeIfPresent(key, (k, ranking) -> {
+			ranking.remove(video);
+			return ranking.isEmpty() ? null : ranking;
+		});
+	}
+
+	private static int weekKey(int isoYear, int isoWeek) {
+		return isoYear * 100 + isoWeek;
+	}
+}
@@ -0,0 +1,242 @@
+package com.nosetr.video.hub.view;
+
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.springframework.stereotype.Component;
+
+import com.nosetr.video.hub.dto.VideoResponseDto;
+import com.nosetr.video.hub.util.VideoDateUtil;
+
+/**
+ * The {@code from}-{@code till} intervals of the videos on a single time axis
+ * (minutes since the epoch), ordered by start. Kept up to date from the changes
+ * applied to the {@link VideoView}. No interval is longer than
+ * {@link #maxLength}, so every interval overlapping a window starts less than
+ * that before the window: one range of the ordered set, found in logarithmic
+ * time. Videos without both times are not indexed.
+ * <p>
+ * Writes in flight {@link #reserve reserve} their interval until the view
+ * shows the written video, so concurrent writes of a user are checked against
+ * each other too.
+ */
+@Component
+public class TimeRangeIndex implements VideoChangeListener {
+
+	public static final int MINUTES_PER_DAY = 24 * 60;
+
+	private static final Comparator<Interval> BY_START = Comparator.comparingLong(Interval::start)
+			.thenComparing(Interval::id);
+
+	private final NavigableSet<Interval> intervals = new ConcurrentSkipListSet<>(BY_START);
+
+	// Only grows, a stale (too large) value just widens the scanned range
+	private volatile long maxLength;
+
+	// Reservations of writes in flight per user, guarded by itself
+	private final Map<String, List<Reservation>> reserved = new HashMap<>();
+	// Reservations of written videos, until the view shows them
+	private final Map<String, Reservation> written = new ConcurrentHashMap<>();
+
+	@Override
+	public void onVideoChanged(VideoResponseDto before, VideoResponseDto after) {
+		Interval removed = interval(before);
+		if (removed != null) { intervals.remove(removed); }
+
+		Interval added = interval(after);
+		if (added != null) {
+			if (added.end() - added.start() > maxLength) { maxLength = added.end() - added.start(); }
+			intervals.add(added);
+		}
+
+		if (after != null) {
+			Reservation reservation = written.remove(after.getId());
+			if (reservation != null) { reservation.remove(); }
+		}
+	}
+
+	/**
+	 * Videos overlapping {@code [fromMinute, tillMinute)} of a day, ordered by start.
+	 */
+	public List<VideoResponseDto> overlapping(long epochDay, int fromMinute, int tillMinute) {
+		long start = epochDay * MINUTES_PER_DAY + fromMinute;
+		long end = epochDay * MINUTES_PER_DAY + tillMinute;
+
+		List<VideoResponseDto> videos = new ArrayList<>();
+		for (Interval interval : candidates(start, end)) {
+			if (interval.end() > start) { videos.add(interval.video()); }
+		}
+		return videos;
+	}
+
+	/**
+	 * A video of {@code userId} overlapping {@code [fromMinute, tillMinute)} of a
+	 * day, or {@code null}. Includes the videos reserved but not shown yet.
+	 */
+	public VideoResponseDto findOverlapping(String userId, long epochDay, int fromMinute, int tillMinute) {
+		long start = epochDay * MINUTES_PER_DAY + fromMinute;
+		long end = epochDay * MINUTES_PER_DAY + tillMinute;
+
+		synchronized (reserved) {
+			return findOverlapping(userId, start, end);
+		}
+	}
+
+	/**
+	 * Reserves the interval of a video about to be written by its user, unless
+	 * it overlaps one of their videos or reservations. The caller reports the
+	 * written id or releases the reservation when the write failed.
+	 *
+	 * @param video the video to write, with {@code userId}, {@code epochDay},
+	 *              {@code fromMinute} and {@code tillMinute}
+	 */
+	public Reservation reserve(VideoResponseDto video) {
+		long start = video.getEpochDay() * MINUTES_PER_DAY + video.getFromMinute();
+		long end = video.getEpochDay() * MINUTES_PER_DAY + video.getTillMinute();
+
+		synchronized (reserved) {
+			VideoResponseDto conflict = findOverlapping(video.getUserId(), start, end);
+			if (conflict != null) { return new Reservation(null, conflict); }
+
+			Reservation reservation = new Reservation(new Interval(start, end, "", video), null);
+			reserved.computeIfAbsent(video.getUserId(), k -> new ArrayList<>())
+					.add(reservation);
+			return reservation;
+		}
+	}
+
+	/**
+	 * A reservation of nothing, for writes that are not checked.
+	 */
+	public Reservation unchecked() {
+		return new Reservation(null, null);
+	}
+
+	/**
+	 * Callers hold the {@code reserved} lock.
+	 */
+	private VideoResponseDto findOverlapping(String userId, long start, long end) {
+		for (Interval interval : candidates(start, end)) {
+			if (
+				interval.end() > start && userId.equals(
+						interval.video()
+								.getUserId()
+				)
+			) { return interval.video(); }
+		}
+
+		for (Reservation reservation : reserved.getOrDefault(userId, List.of())) {
+			if (reservation.interval.start() < end && reservation.interval.end() > start) {
+				return reservation.interval.video();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * The intervals starting in {@code (start - maxLength, end)}.
+	 */
+	private NavigableSet<Interval> candidates(long start, long end) {
+		return intervals.subSet(bound(start - maxLength), false, bound(end), false);
+	}
+
+	private static Interval bound(long start) {
+		// The empty id sorts before every video id starting there
+		return new Interval(start, start, "", null);
+	}
+
+	private static Interval interval(VideoResponseDto video) {
+		if (video == null) { return null; }
+
+		Long epochDay;
+		Integer from;
+		Integer till;
+		try {
+			// Videos stored before the typed fields existed only have the strings
+			epochDay = (video.getEpochDay() != null) ? video.getEpochDay() : VideoDateUtil.epochDay(video.getDay());
+			from = (video.getFromMinute() != null) ? video.getFromMinute() : VideoDateUtil.minuteOfDay(video.getFrom());
+			till = (video.getTillMinute() != null) ? video.getTillMinute() : VideoDateUtil.minuteOfDay(video.getTill());
+		} catch (DateTimeParseException e) {
+			return null;
+		}
+		if (epochDay == null || from == null || till == null || till <= from) { return null; }
+
+		long day = epochDay * MINUTES_PER_DAY;
+		return new Interval(day + from, day + till, video.getId(), video);
+	}
+
+	private record Interval(long start, long end, String id, VideoResponseDto video) {}
+
+	/**
+	 * The interval of one write in flight, or the video it overlaps.
+	 */
+	public final class Reservation {
+
+		private final Interval interval;
+		private final VideoResponseDto conflict;
+		private volatile boolean done;
+
+		private Reservation(Interval interval, VideoResponseDto conflict) {
+			this.interval = interval;
+			this.conflict = conflict;
+		}
+
+		/**
+		 * The video of the same user overlapping the reserved one, if nothing was
+		 * reserved.
+		 */
+		public VideoResponseDto getConflict() {
+			return conflict;
+		}
+
+		/**
+		 * Keeps the interval reserved until the view shows the video {@code id}.
+		 */
+		public void written(String id) {
+			if (interval == null || done) { return; }
+
+			done = true;
+			written.put(id, this);
+			// The view may have shown the video before it was reported here
+			if (intervals.contains(new Interval(interval.start(), interval.end(), id, null))) {
+				written.remove(id, this);
+				remove();
+			}
+		}
+
+		/**
+		 * Releases the interval of a write that did not happen; no-op once written.
+		 */
+		public void release() {
+			if (interval == null || done) { return; }
+
+			done = true;
+			remove();
+		}
+
+		private void remove() {
+			synchronized (reserved) {
+				List<Reservation> reservations = reserved.get(
+						interval.video()
+								.getUserId()
+				);
+				if (reservations == null) { return; }
+
+				reservations.remove(this);
+				if (reservations.isEmpty()) {
+					reserved.remove(
+							interval.video()
+									.getUserId()
+					);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,259 @@
+package com.nosetr.video.hub.view;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Component;
+
+import com.nosetr.video.hub.dto.VideoResponseDto;
+
+/**
+ * Inverted index over the video titles, kept up to date from the changes
+ * applied to the {@link VideoView}. Every query term matches the title words
+ * it is a prefix of, all terms must match. Results are ranked by the number of
+ * exact word matches, then by rating.
+ * <p>
+ * Each indexed title gets a document number. The term dictionary is sorted, so
+ * a prefix is one range, and maps every word to an append-only {@code int[]}
+ * of document numbers. A changed title is indexed as a new document and the
+ * old one left behind as a tombstone until the next compaction.
+ */
+@Component
+public class TitleSearchIndex implements VideoChangeListener {
+
+	private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+	private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+	private static final int MIN_COMPACTION_TOMBSTONES = 1024;
+
+	private static final Comparator<Hit> BY_RANK = Comparator.comparingInt(Hit::score)
+			.reversed()
+			.thenComparing(
+					Hit::video, Comparator.comparingDouble(VideoResponseDto::getAverageRating)
+							.thenComparingLong(VideoResponseDto::getRatingCount)
+							.reversed()
+							.thenComparing(VideoResponseDto::getId)
+			);
+
+	private volatile Segment segment = new Segment();
+
+	// Only used by the (single) writer
+	private final Map<String, Integer> documents = new HashMap<>();
+	private int tombstones;
+
+	@Override
+	public void onVideoChanged(VideoResponseDto before, VideoResponseDto after) {
+		String id = (after != null) ? after.getId() : before.getId();
+		Integer document = documents.get(id);
+
+		if (document != null) {
+			// Same words, only the stored video changes (e.g. a new rating)
+			if (after != null && before != null && Objects.equals(before.getTitle(), after.getTitle())) {
+				segment.videos.set(document, after);
+				return;
+			}
+
+			segment.videos.set(document, null);
+			documents.remove(id);
+			tombstones++;
+		}
+
+		if (after != null) { documents.put(id, segment.add(after)); }
+
+		if (tombstones > Math.max(MIN_COMPACTION_TOMBSTONES, documents.size())) { compact(); }
+	}
+
+	/**
+	 * At most {@code limit} videos whose title matches all words of {@code query}.
+	 */
+	public List<VideoResponseDto> search(String query, int limit) {
+		List<String> terms = tokenize(query);
+		if (terms.isEmpty()) { return List.of(); }
+
+		Segment current = segment;
+
+		// Matches per term as sorted (document << 1 | exact) codes, intersected from the rarest term
+		List<int[]> matches = new ArrayList<>(terms.size());
+		for (String term : terms) {
+			int[] match = current.match(term);
+			if (match.length == 0) { return List.of(); }
+			matches.add(match);
+		}
+		matches.sort(Comparator.comparingInt(match -> match.length));
+
+		List<Hit> hits = new ArrayList<>();
+		for (int code : matches.get(0)) {
+			int document = code >>> 1;
+			int score = 1 + (code & 1);
+
+			for (int i = 1; i < matches.size() && score > 0; i++) {
+				int other = find(matches.get(i), document);
+				score = (other < 0) ? 0 : score + 1 + (other & 1);
+			}
+			if (score == 0) { continue; }
+
+			VideoResponseDto video = current.videos.get(document);
+			if (video != null) { hits.add(new Hit(video, score)); }
+		}
+
+		return hits.stream()
+				.sorted(BY_RANK)
+				.limit(limit)
+				.map(Hit::video)
+				.toList();
+	}
+
+	/**
+	 * Lower case words without diacritics, each once.
+	 */
+	static List<String> tokenize(String text) {
+		if (text == null) { return List.of(); }
+
+		String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+				.replaceAll("")
+				.toLowerCase(Locale.ROOT);
+
+		Set<String> words = new LinkedHashSet<>();
+		for (String word : SEPARATORS.split(normalized)) {
+			if (!word.isEmpty()) { words.add(word); }
+		}
+		return List.copyOf(words);
+	}
+
+	/**
+	 * Rebuilds the index from the live documents and swaps it in.
+	 */
+	private void compact() {
+		Segment old = segment;
+		Segment compacted = new Segment();
+
+		for (Map.Entry<String, Integer> entry : documents.entrySet()) {
+			entry.setValue(compacted.add(old.videos.get(entry.getValue())));
+		}
+
+		segment = compacted;
+		tombstones = 0;
+	}
+
+	/**
+	 * The code of {@code document} in a sorted code array, or -1.
+	 */
+	private static int find(int[] codes, int document) {
+		int low = 0;
+		int high = codes.length - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int candidate = codes[middle] >>> 1;
+			if (candidate < document) {
+				low = middle + 1;
+			} else if (candidate > document) {
+				high = middle - 1;
+			} else {
+				return codes[middle];
+			}
+		}
+		return -1;
+	}
+
+	private record Hit(VideoResponseDto video, int score) {}
+
+	/**
+	 * Term dictionary and documents. Written by one thread, read by many.
+	 */
+	private static final class Segment {
+
+		private final ConcurrentSkipListMap<String, Postings> terms = new ConcurrentSkipListMap<>();
+		private volatile AtomicReferenceArray<VideoResponseDto> videos = new AtomicReferenceArray<>(1024);
+		private int size;
+
+		int add(VideoResponseDto video) {
+			int document = size++;
+			if (document == videos.length()) {
+				AtomicReferenceArray<VideoResponseDto> grown = new AtomicReferenceArray<>(document * 2);
+				for (int i = 0; i < document; i++) {
+					grown.set(i, videos.get(i));
+				}
+				videos = grown;
+			}
+			// Published before the postings, so a reader finding the document also finds the video
+			videos.set(document, video);
+
+			for (String word : tokenize(video.getTitle())) {
+				terms.computeIfAbsent(word, k -> new Postings())
+						.add(document);
+			}
+			return document;
+		}
+
+		/**
+		 * Sorted, distinct codes of the documents with a word starting with
+		 * {@code term}, the lowest bit set if the word equals the term.
+		 */
+		int[] match(String term) {
+			Map<String, Postings> range = terms.subMap(term, true, term + Character.MAX_VALUE, false);
+
+			int total = 0;
+			for (Postings postings : range.values()) {
+				total += postings.size;
+			}
+
+			int[] codes = new int[total];
+			int length = 0;
+			for (Map.Entry<String, Postings> entry : range.entrySet()) {
+				int exact = entry.getKey()
+						.equals(term) ? 1 : 0;
+				Postings postings = entry.getValue();
+
+				int size = postings.size;
+				int[] documents = postings.documents;
+				for (int i = 0; i < size && length < codes.length; i++) {
+					codes[length++] = documents[i] << 1 | exact;
+				}
+			}
+			Arrays.sort(codes, 0, length);
+
+			// Several words of one title can share the prefix, keep one code per document, exact if any
+			int distinct = 0;
+			for (int i = 0; i < length; i++) {
+				if (distinct > 0 && codes[distinct - 1] >>> 1 == codes[i] >>> 1) {
+					codes[distinct - 1] = codes[i];
+				} else {
+					codes[distinct++] = codes[i];
+				}
+			}
+			return Arrays.copyOf(codes, distinct);
+		}
+	}
+
+	/**
+	 * Append-only list of ascending document numbers. The array is replaced
+	 * before {@code size} grows, so a reader reading {@code size} first always
+	 * gets an array holding that many documents.
+	 */
+	private static final class Postings {
+
+		private volatile int[] documents = new int[2];
+		private volatile int size;
+
+		void add(int document) {
+			int[] current = documents;
+			if (size == current.length) {
+				current = Arrays.copyOf(current, size * 2);
+				documents = current;
+			}
+			current[size] = document;
+			size = size + 1;
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package com.nosetr.video.hub.view;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import com.nosetr.video.hub.dto.ScoreDto;
+import com.nosetr.video.hub.dto.UserStatsDto;
+import com.nosetr.video.hub.dto.VideoResponseDto;
+
+/**
+ * Per-user counters (videos posted, ratings received, votes cast), adjusted
+ * by the difference of each change seen by the {@link VideoView}. Reading the
+ * stats of a user is independent of the size of the collection.
+ */
+@Component
+public class UserStatsIndex implements VideoChangeListener {
+
+	private static final UserStats EMPTY = new UserStats(0, 0, 0, 0);
+
+	private final Map<String, UserStats> stats = new ConcurrentHashMap<>();
+
+	@Override
+	public void onVideoChanged(VideoResponseDto before, VideoResponseDto after) {
+		if (before != null && after != null && sameOwner(before, after)) {
+			// Rating changes only: the owner's aggregates move by the difference
+			add(
+					after.getUserId(), new UserStats(
+							0, after.getRatingCount() - before.getRatingCount(),
+							after.getRatingSum() - before.getRatingSum(), 0
+					)
+			);
+		} else {
+			if (before != null) { add(before.getUserId(), contribution(before, -1)); }
+			if (after != null) { add(after.getUserId(), contribution(after, 1)); }
+		}
+
+		countVotes(before, after);
+	}
+
+	public UserStatsDto get(String userId) {
+		UserStats userStats = stats.getOrDefault(userId, EMPTY);
+
+		return new UserStatsDto(
+				userId, userStats.videos(), userStats.ratings(),
+				(userStats.ratings() == 0) ? 0 : (double) userStats.ratingSum() / userStats.ratings(),
+				userStats.votes()
+		);
+	}
+
+	/**
+	 * Ratings are only ever appended, so usually only the new tail is counted.
+	 */
+	private void countVotes(VideoResponseDto before, VideoResponseDto after) {
+		List<ScoreDto> previous = ratings(before);
+		List<ScoreDto> current = ratings(after);
+
+		if (
+			before != null && after != null && current.size() >= previous.size() && current.subList(0, previous.size())
+					.equals(previous)
+		) {
+			vote(current.subList(previous.size(), current.size()), 1);
+			return;
+		}
+
+		vote(previous, -1);
+		vote(current, 1);
+	}
+
+	private void vote(List<ScoreDto> ratings, int sign) {
+		for (ScoreDto rating : ratings) {
+			add(rating.getVoter(), new UserStats(0, 0, 0, sign));
+		}
+	}
+
+	private void add(String userId, UserStats delta) {
+		if (userId == null) { return; }
+
+		stats.compute(userId, (k, current) -> {
+			UserStats sum = (current == null ? EMPTY : current).plus(delta);
+			return sum.equals(EMPTY) ? null : sum;
+		});
+	}
+
+	private static UserStats contribution(VideoResponseDto video, int sign) {
+		return new UserStats(sign, sign * video.getRatingCount(), sign * video.getRatingSum(), 0);
+	}
+
+	private static boolean sameOwner(VideoResponseDto before, VideoResponseDto after) {
+		return before.getUserId() != null && before.getUserId()
+				.equals(after.getUserId());
+	}
+
+	private static List<ScoreDto> ratings(VideoResponseDto video) {
+		return (video == null || video.getRatings() == null) ? List.of() : video.getRatings();
+	}
+
+	private record UserStats(long videos, long ratings, long ratingSum, long votes) {
+
+		UserStats plus(UserStats other) {
+			return new UserStats(
+					videos + other.videos, ratings + other.ratings, ratingSum + other.ratingSum, votes + other.votes
+			);
+		}
+	}
+}
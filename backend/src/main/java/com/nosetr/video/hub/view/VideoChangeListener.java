@@ -0,0 +1,18 @@
+package com.nosetr.video.hub.view;
+
+import com.nosetr.video.hub.dto.VideoResponseDto;
+
+/**
+ * Receives every change of the videos collection seen by the {@link VideoView},
+ * starting with the initial load (one call per video with {@code before == null}).
+ * Calls are made one at a time, in order.
+ */
+public interface VideoChangeListener {
+
+	/**
+	 * @param before the previous state, {@code null} if the video was added
+	 * @param after  the new state, {@code null} if the video was removed
+	 */
+	void onVideoChanged(VideoResponseDto before, VideoResponseDto after);
+
+}
@@ -0,0 +1,35 @@
+package com.nosetr.video.hub.view;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import com.nosetr.video.hub.dto.VideoResponseDto;
+
+/**
+ * Version of the videos collection as seen by the {@link VideoView}, bumped on
+ * every change from any write path. The epoch differs per process, so versions
+ * of different instances or restarts never collide.
+ */
+@Component
+public class VideoCollectionVersion implements VideoChangeListener {
+
+	private final String epoch = Long.toHexString(
+			ThreadLocalRandom.current()
+					.nextLong()
+	);
+	private final AtomicLong version = new AtomicLong();
+
+	@Override
+	public void onVideoChanged(VideoResponseDto before, VideoResponseDto after) {
+		version.incrementAndGet();
+	}
+
+	/**
+	 * Opaque token that changes whenever the collection changes.
+	 */
+	public String current() {
+		return epoch + "-" + version.get();
+	}
+}
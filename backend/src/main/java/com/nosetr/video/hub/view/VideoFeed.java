@@ -0,0 +1,113 @@
+package com.nosetr.video.hub.view;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+
+import com.nosetr.video.hub.dto.VideoEventDto;
+import com.nosetr.video.hub.dto.VideoEventDto.Type;
+import com.nosetr.video.hub.dto.VideoResponseDto;
+import com.nosetr.video.hub.dto.VideoSummaryDto;
+import com.nosetr.video.hub.util.VideoFields;
+
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Fans the changes seen by the {@link VideoView} (one listener per instance)
+ * out to any number of subscribers. Every subscriber has its own bounded
+ * buffer: a slow one loses its oldest events instead of holding back the
+ * others.
+ */
+@Component
+public class VideoFeed implements VideoChangeListener {
+
+	private final Sinks.Many<ServerSentEvent<VideoEventDto>> sink = Sinks.many()
+			.multicast()
+			.directBestEffort();
+	private final AtomicLong sequence = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+
+	private final int bufferSize;
+	private final Duration heartbeat;
+
+	public VideoFeed(
+			@Value("${videos.feed.buffer-size:256}") int bufferSize,
+			@Value("${videos.feed.heartbeat:15s}") Duration heartbeat
+	) {
+		this.bufferSize = bufferSize;
+		this.heartbeat = heartbeat;
+	}
+
+	@Override
+	public void onVideoChanged(VideoResponseDto before, VideoResponseDto after) {
+		// Without subscribers (e.g. during the initial load) the event is discarded
+		if (sink.currentSubscriberCount() == 0) { return; }
+
+		VideoEventDto event = toEvent(before, after);
+		if (event == null) { return; }
+
+		sink.tryEmitNext(
+				ServerSentEvent.builder(event)
+						.id(String.valueOf(sequence.incrementAndGet()))
+						.event(
+								event.getType()
+										.name()
+						)
+						.build()
+		);
+	}
+
+	/**
+	 * Live events from now on. A comment is sent right away, so the response is
+	 * committed, and periodically to keep idle connections open.
+	 */
+	public Flux<ServerSentEvent<VideoEventDto>> subscribe() {
+		Flux<ServerSentEvent<VideoEventDto>> heartbeats = Flux.interval(heartbeat)
+				.map(tick -> comment("heartbeat"));
+
+		// Buffered after the merge, which would otherwise prefetch past the bound
+		return sink.asFlux()
+				.mergeWith(heartbeats)
+				.onBackpressureBuffer(bufferSize, event -> {
+					if (event.data() != null) { dropped.incrementAndGet(); }
+				}, BufferOverflowStrategy.DROP_OLDEST)
+				.startWith(comment("connected"));
+	}
+
+	public int getSubscriberCount() {
+		return sink.currentSubscriberCount();
+	}
+
+	public long getDropped() {
+		return dropped.get();
+	}
+
+	private static ServerSentEvent<VideoEventDto> comment(String comment) {
+		return ServerSentEvent.<VideoEventDto>builder()
+				.comment(comment)
+				.build();
+	}
+
+	private static VideoEventDto toEvent(VideoResponseDto before, VideoResponseDto after) {
+		if (after == null) {
+			return new VideoEventDto(
+					Type.REMOVED, VideoSummaryDto.builder()
+							.id(before.getId())
+							.build()
+			);
+		}
+		if (before == null) { return new VideoEventDto(Type.CREATED, VideoFields.toSummary(after)); }
+		if (before.getRatingCount() != after.getRatingCount()) {
+			return new VideoEventDto(Type.RATED, VideoFields.toSummary(after));
+		}
+
+		VideoSummaryDto summary = VideoFields.toSummary(after);
+		// Changes outside the summary (e.g. migrated fields) are of no interest
+		return summary.equals(VideoFields.toSummary(before)) ? null : new VideoEventDto(Type.UPDATED, summary);
+	}
+}
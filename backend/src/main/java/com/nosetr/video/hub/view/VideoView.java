@@ -0,0 +1,275 @@
+package com.nosetr.video.hub.view;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.nosetr.video.hub.dto.VideoResponseDto;
+import com.nosetr.video.hub.repository.VideoDocumentChange;
+import com.nosetr.video.hub.repository.VideoRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * In-memory materialized view of the videos collection. It is loaded once and
+ * kept current by the repository's change listener (a Firestore snapshot
+ * listener by default), with secondary indexes by user and by day. A failed
+ * listener is replaced after a growing delay; its first snapshot is applied
+ * as a difference to the current contents, so the view and every
+ * {@link VideoChangeListener} end up as after a fresh load.
+ */
+@Slf4j
+@Component
+public class VideoView {
+
+	private static final Comparator<VideoResponseDto> BY_DAY = Comparator
+			.comparingLong((VideoResponseDto video) -> epochDay(video))
+			.thenComparing(VideoResponseDto::getId);
+
+	private final VideoRepository videoRepository;
+	private final ObjectProvider<VideoChangeListener> changeListeners;
+	private final boolean enabled;
+	private final boolean lazyInit;
+	private final Duration minBackoff;
+	private final Duration maxBackoff;
+
+	private final ConcurrentSkipListMap<String, VideoResponseDto> byId = new ConcurrentSkipListMap<>();
+	private final Map<String, Set<String>> idsByUser = new ConcurrentHashMap<>();
+	private final NavigableSet<VideoResponseDto> byDay = new ConcurrentSkipListSet<>(BY_DAY);
+
+	// Batches of a replaced listener still in flight are dropped
+	private final Object applyLock = new Object();
+	private volatile long generation;
+
+	private volatile boolean ready;
+	private Disposable subscription;
+	private Disposable retry;
+	private volatile Duration backoff;
+	private boolean stopped;
+
+	public VideoView(
+			VideoRepository videoRepository, ObjectProvider<VideoChangeListener> changeListeners,
+			@Value("${videos.view.enabled:false}") boolean enabled, @Value("${firebase.lazy-init:false}") boolean lazyInit,
+			@Value("${videos.view.retry.min-backoff:1s}") Duration minBackoff,
+			@Value("${videos.view.retry.max-backoff:1m}") Duration maxBackoff
+	) {
+		this.videoRepository = videoRepository;
+		this.changeListeners = changeListeners;
+		this.enabled = enabled;
+		this.lazyInit = lazyInit;
+		this.minBackoff = minBackoff;
+		this.maxBackoff = maxBackoff;
+		this.backoff = minBackoff;
+	}
+
+	@PostConstruct
+	public void init() {
+		// With lazy Firebase initialization FirebaseStartup starts the view once the clients exist
+		if (!lazyInit) { start(); }
+	}
+
+	public synchronized void start() {
+		if (!enabled || stopped || subscription != null) { return; }
+
+		List<VideoChangeListener> listeners = changeListeners.orderedStream()
+				.toList();
+		long listenerGeneration = ++generation;
+		AtomicBoolean first = new AtomicBoolean(true);
+
+		try {
+			subscription = videoRepository.listen(
+					changes -> apply(listenerGeneration, changes, first.getAndSet(false), listeners),
+					error -> failed(listenerGeneration, error)
+			);
+		} catch (RuntimeException e) {
+			failed(listenerGeneration, e);
+		}
+	}
+
+	@PreDestroy
+	public synchronized void stop() {
+		stopped = true;
+		if (retry != null) { retry.dispose(); }
+		if (subscription != null) { subscription.dispose(); }
+	}
+
+	/**
+	 * Drops the failed listener and schedules a new one.
+	 */
+	private synchronized void failed(long listenerGeneration, Throwable error) {
+		if (listenerGeneration != generation || stopped) { return; }
+
+		ready = false;
+		generation++;
+		if (subscription != null) {
+			subscription.dispose();
+			subscription = null;
+		}
+
+		Duration delay = backoff;
+		backoff = (backoff.multipliedBy(2)
+				.compareTo(maxBackoff) < 0) ? backoff.multipliedBy(2) : maxBackoff;
+		log.error("IN VideoView - listener failed, listening again in {} ms: {}", delay.toMillis(), error.getMessage());
+
+		retry = Mono.delay(delay, Schedulers.boundedElastic())
+				.subscribe(tick -> start());
+	}
+
+	/**
+	 * {@code true} once the initial load has been applied and as long as the
+	 * listener is healthy. Reads should fall back to Firestore otherwise.
+	 */
+	public boolean isReady() {
+		return ready;
+	}
+
+	public VideoResponseDto get(String id) {
+		return byId.get(id);
+	}
+
+	/**
+	 * All videos ordered by id.
+	 */
+	public Collection<VideoResponseDto> getAll() {
+		return byId.values();
+	}
+
+	/**
+	 * At most {@code limit} videos ordered by id, after {@code lastId} ({@code null} for the first page).
+	 */
+	public List<VideoResponseDto> getPage(int limit, String lastId) {
+		Collection<VideoResponseDto> tail = (lastId == null)
+				? byId.values()
+				: byId.tailMap(lastId, false)
+						.values();
+
+		List<VideoResponseDto> page = new ArrayList<>(Math.min(limit, byId.size()));
+		for (VideoResponseDto video : tail) {
+			if (page.size() == limit) { break; }
+			page.add(video);
+		}
+		return page;
+	}
+
+	/**
+	 * Videos with {@code fromEpochDay <= epochDay <= toEpochDay}, ordered by day.
+	 */
+	public List<VideoResponseDto> getByDayRange(long fromEpochDay, long toEpochDay) {
+		return byDay.subSet(dayBound(fromEpochDay, ""), true, dayBound(toEpochDay + 1, ""), false)
+				.stream()
+				.toList();
+	}
+
+	public List<VideoResponseDto> getByUser(String userId) {
+		Set<String> ids = idsByUser.getOrDefault(userId, Set.of());
+
+		List<VideoResponseDto> videos = new ArrayList<>(ids.size());
+		for (String id : ids) {
+			VideoResponseDto video = byId.get(id);
+			if (video != null) { videos.add(video); }
+		}
+		return videos;
+	}
+
+	private void apply(
+			long listenerGeneration, List<VideoDocumentChange> changes, boolean snapshot, List<VideoChangeListener> listeners
+	) {
+		synchronized (applyLock) {
+			if (listenerGeneration != generation) { return; }
+
+			// The full contents: whatever is missing was removed while no listener was running
+			if (snapshot && !byId.isEmpty()) {
+				Set<String> ids = new HashSet<>(changes.size());
+				for (VideoDocumentChange change : changes) {
+					ids.add(change.id());
+				}
+				for (String id : byId.keySet()) {
+					if (!ids.contains(id)) { apply(new VideoDocumentChange(id, null), listeners); }
+				}
+			}
+
+			for (VideoDocumentChange change : changes) {
+				apply(change, listeners);
+			}
+
+			if (!ready) {
+				log.info("IN VideoView - loaded {} videos", byId.size());
+				backoff = minBackoff;
+			}
+			ready = true;
+		}
+	}
+
+	private void apply(VideoDocumentChange change, List<VideoChangeListener> listeners) {
+		VideoResponseDto after = change.video();
+		VideoResponseDto before = change.isRemoved()
+				? byId.remove(change.id())
+				: byId.put(change.id(), after);
+
+		// Unchanged, e.g. the snapshot of a new listener
+		if ((before == null && after == null) || (before != null && before.equals(after))) { return; }
+
+		unindex(before);
+		index(after);
+
+		for (VideoChangeListener listener : listeners) {
+			try {
+				listener.onVideoChanged(before, after);
+			} catch (RuntimeException e) {
+				log.error("IN VideoView - change listener {} failed: {}", listener.getClass(), e.getMessage());
+			}
+		}
+	}
+
+	private void index(VideoResponseDto video) {
+		if (video == null) { return; }
+
+		if (video.getUserId() != null) {
+			idsByUser.computeIfAbsent(video.getUserId(), k -> ConcurrentHashMap.newKeySet())
+					.add(video.getId());
+		}
+		byDay.add(video);
+	}
+
+	private void unindex(VideoResponseDto video) {
+		if (video == null) { return; }
+
+		if (video.getUserId() != null) {
+			idsByUser.computeIfPresent(video.getUserId(), (k, ids) -> {
+				ids.remove(video.getId());
+				return ids.isEmpty() ? null : ids;
+			});
+		}
+		byDay.remove(video);
+	}
+
+	private static long epochDay(VideoResponseDto video) {
+		return (video.getEpochDay() == null) ? Long.MIN_VALUE : video.getEpochDay();
+	}
+
+	private static VideoResponseDto dayBound(long epochDay, String id) {
+		return new VideoResponseDto().toBuilder()
+				.id(id)
+				.epochDay(epochDay)
+				.build();
+	}
+}
@@ -0,0 +1,207 @@
+package com.nosetr.video.hub.view;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import com.nosetr.video.hub.dto.ContributorDto;
+import com.nosetr.video.hub.dto.ScoreDto;
+import com.nosetr.video.hub.dto.VideoResponseDto;
+import com.nosetr.video.hub.dto.WeekStatsDto;
+import com.nosetr.video.hub.dto.YearStatsDto;
+
+/**
+ * Weekly and yearly rollups per ISO year (videos, ratings, distinct voters,
+ * top contributors), adjusted by the difference of each change seen by the
+ * {@link VideoView}. A whole year is read from one entry, independent of the
+ * number of videos in it.
+ */
+@Component
+public class WeeklyRollupIndex implements VideoChangeListener {
+
+	public static final int TOP_CONTRIBUTORS = 5;
+
+	// Indexed by ISO week, 1 to 53
+	private static final int WEEKS = 54;
+
+	private static final Comparator<Map.Entry<String, Integer>> BY_COUNT = Map.Entry.<String, Integer>comparingByValue()
+			.reversed()
+			.thenComparing(Map.Entry.comparingByKey());
+
+	private final Map<Integer, YearRollup> years = new ConcurrentHashMap<>();
+
+	@Override
+	public void onVideoChanged(VideoResponseDto before, VideoResponseDto after) {
+		if (before != null && after != null && sameBucket(before, after)) {
+			// Rating changes only: the week moves by the difference and the new voters
+			YearRollup rollup = rollup(after);
+			synchronized (rollup) {
+				rollup.rate(
+						after.getIsoWeek(), after.getRatingCount() - before.getRatingCount(),
+						after.getRatingSum() - before.getRatingSum()
+				);
+				countVotes(rollup, after.getIsoWeek(), ratings(before), ratings(after));
+			}
+			return;
+		}
+
+		if (indexed(before)) {
+			YearRollup rollup = rollup(before);
+			synchronized (rollup) {
+				rollup.add(before, -1);
+				rollup.vote(before.getIsoWeek(), ratings(before), -1);
+			}
+		}
+		if (indexed(after)) {
+			YearRollup rollup = rollup(after);
+			synchronized (rollup) {
+				rollup.add(after, 1);
+				rollup.vote(after.getIsoWeek(), ratings(after), 1);
+			}
+		}
+	}
+
+	public YearStatsDto get(int isoYear) {
+		YearRollup rollup = years.get(isoYear);
+		if (rollup == null) { return new YearStatsDto(isoYear, 0, 0, 0, 0, 0, List.of(), List.of()); }
+
+		synchronized (rollup) {
+			return rollup.snapshot(isoYear);
+		}
+	}
+
+	/**
+	 * Ratings are only ever appended, so usually only the new tail is counted.
+	 */
+	private static void countVotes(YearRollup rollup, int isoWeek, List<ScoreDto> previous, List<ScoreDto> current) {
+		if (
+			current.size() >= previous.size() && current.subList(0, previous.size())
+					.equals(previous)
+		) {
+			rollup.vote(isoWeek, current.subList(previous.size(), current.size()), 1);
+			return;
+		}
+
+		rollup.vote(isoWeek, previous, -1);
+		rollup.vote(isoWeek, current, 1);
+	}
+
+	private YearRollup rollup(VideoResponseDto video) {
+		return years.computeIfAbsent(video.getIsoYear(), k -> new YearRollup());
+	}
+
+	private static boolean sameBucket(VideoResponseDto before, VideoResponseDto after) {
+		return indexed(before) && before.getIsoYear()
+				.equals(after.getIsoYear())
+				&& before.getIsoWeek()
+						.equals(after.getIsoWeek())
+				&& Objects.equals(before.getUserId(), after.getUserId());
+	}
+
+	private static boolean indexed(VideoResponseDto video) {
+		return video != null && video.getIsoYear() != null && video.getIsoWeek() != null && video.getIsoWeek() > 0
+				&& video.getIsoWeek() < WEEKS;
+	}
+
+	private static List<ScoreDto> ratings(VideoResponseDto video) {
+		return (video.getRatings() == null) ? List.of() : video.getRatings();
+	}
+
+	/**
+	 * Counts of one ISO year. Guarded by its own monitor: written by the view,
+	 * read by the requests.
+	 */
+	private static final class YearRollup {
+
+		private final long[] videos = new long[WEEKS];
+		private final long[] ratings = new long[WEEKS];
+		private final long[] ratingSums = new long[WEEKS];
+
+		// Votes per voter and videos per uploader; index 0 holds the whole year
+		@SuppressWarnings("unchecked")
+		private final Map<String, Integer>[] voters = new Map[WEEKS];
+		@SuppressWarnings("unchecked")
+		private final Map<String, Integer>[] contributors = new Map[WEEKS];
+
+		void add(VideoResponseDto video, int sign) {
+			int week = video.getIsoWeek();
+			videos[week] += sign;
+			rate(week, sign * video.getRatingCount(), sign * video.getRatingSum());
+
+			if (video.getUserId() != null) {
+				count(contributors, week, video.getUserId(), sign);
+				count(contributors, 0, video.getUserId(), sign);
+			}
+		}
+
+		void rate(int week, long ratingCount, long ratingSum) {
+			ratings[week] += ratingCount;
+			ratingSums[week] += ratingSum;
+		}
+
+		void vote(int week, List<ScoreDto> scores, int sign) {
+			for (ScoreDto score : scores) {
+				if (score.getVoter() == null) { continue; }
+
+				count(voters, week, score.getVoter(), sign);
+				count(voters, 0, score.getVoter(), sign);
+			}
+		}
+
+		YearStatsDto snapshot(int isoYear) {
+			long videoCount = 0;
+			long ratingCount = 0;
+			long ratingSum = 0;
+			List<WeekStatsDto> weeks = new ArrayList<>();
+
+			for (int week = 1; week < WEEKS; week++) {
+				if (videos[week] == 0) { continue; }
+
+				videoCount += videos[week];
+				ratingCount += ratings[week];
+				ratingSum += ratingSums[week];
+				weeks.add(
+						new WeekStatsDto(
+								week, videos[week], ratings[week], ratingSums[week], average(ratingSums[week], ratings[week]),
+								size(voters[week]), top(contributors[week])
+						)
+				);
+			}
+
+			return new YearStatsDto(
+					isoYear, videoCount, ratingCount, ratingSum, average(ratingSum, ratingCount), size(voters[0]),
+					top(contributors[0]), weeks
+			);
+		}
+
+		private static void count(Map<String, Integer>[] counts, int index, String key, int delta) {
+			if (counts[index] == null) { counts[index] = new HashMap<>(); }
+			counts[index].merge(key, delta, (a, b) -> (a + b == 0) ? null : a + b);
+		}
+
+		private static long size(Map<String, Integer> counts) {
+			return (counts == null) ? 0 : counts.size();
+		}
+
+		private static List<ContributorDto> top(Map<String, Integer> counts) {
+			if (counts == null) { return List.of(); }
+
+			return counts.entrySet()
+					.stream()
+					.sorted(BY_COUNT)
+					.limit(TOP_CONTRIBUTORS)
+					.map(entry -> new ContributorDto(entry.getKey(), entry.getValue()))
+					.toList();
+		}
+
+		private static double average(long sum, long count) {
+			return (count == 0) ? 0 : (double) sum / count;
+		}
+	}
+}
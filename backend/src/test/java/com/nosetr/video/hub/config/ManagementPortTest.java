@@ -0,0 +1,79 @@
+package com.nosetr.video.hub.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.auth.FirebaseAuth;
+
+/**
+ * Actuator is only reachable on the management port, the public port serves
+ * the probes alone. Runs against the in-memory repository, without Firebase.
+ */
+// Metrics export is off in tests otherwise
+@AutoConfigureObservability
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"firebase.key=test", "management.server.port=0"
+})
+@ActiveProfiles("memory")
+class ManagementPortTest {
+
+	@MockBean
+	private FirebaseApp firebaseApp;
+	@MockBean
+	private FirebaseAuth firebaseAuth;
+
+	@LocalServerPort
+	private int port;
+	@LocalManagementPort
+	private int managementPort;
+
+	@Test
+	void publicPort_probesOnly() {
+		WebTestClient client = client(port);
+
+		client.get()
+				.uri("/readyz")
+				.exchange()
+				.expectStatus()
+				.isOk();
+		client.get()
+				.uri("/livez")
+				.exchange()
+				.expectStatus()
+				.isOk();
+		client.get()
+				.uri("/actuator/prometheus")
+				.exchange()
+				.expectStatus()
+				.isNotFound();
+	}
+
+	@Test
+	void managementPort_scrapeAndHealth() {
+		WebTestClient client = client(managementPort);
+
+		client.get()
+				.uri("/actuator/prometheus")
+				.exchange()
+				.expectStatus()
+				.isOk();
+		client.get()
+				.uri("/actuator/health/readiness")
+				.exchange()
+				.expectStatus()
+				.isOk();
+	}
+
+	private static WebTestClient client(int port) {
+		return WebTestClient.bindToServer()
+				.baseUrl("http://localhost:" + port)
+				.build();
+	}
+}
@@ -0,0 +1,175 @@
+package com.nosetr.video.hub.config;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.nosetr.video.hub.dto.ScoreDto;
+import com.nosetr.video.hub.dto.VideoPageDto;
+import com.nosetr.video.hub.dto.VideoResponseDto;
+import com.nosetr.video.hub.dto.VideoSummaryDto;
+import com.nosetr.video.hub.proto.Score;
+import com.nosetr.video.hub.proto.Video;
+import com.nosetr.video.hub.proto.VideoPage;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Decodes the encoder's output with the classes generated from
+ * {@code video_hub.proto}, the way a client would.
+ */
+class VideoProtobufEncoderTest {
+
+	private final VideoProtobufEncoder encoder = new VideoProtobufEncoder();
+
+	@Test
+	void encodeValue_video_setsEveryFieldOfTheProto() throws Exception {
+		Video message = Video.parseFrom(encode(video()));
+
+		for (
+			FieldDescriptor field : Video.getDescriptor()
+					.getFields()
+		) {
+			Assertions.assertTrue(
+					field.isRepeated() ? message.getRepeatedFieldCount(field) > 0 : message.hasField(field),
+					"Field not written: " + field.getName()
+			);
+		}
+		Assertions.assertEquals("v1", message.getId());
+		Assertions.assertEquals("u1", message.getUserId());
+		Assertions.assertEquals("Morning run", message.getTitle());
+		Assertions.assertEquals("2024-05-13", message.getDay());
+		Assertions.assertEquals(2L, message.getRatingCount());
+		Assertions.assertEquals(9L, message.getRatingSum());
+		Assertions.assertEquals(4.5, message.getAverageRating());
+		Assertions.assertEquals(2024, message.getIsoYear());
+		Assertions.assertEquals(20, message.getIsoWeek());
+		Assertions.assertEquals(19856L, message.getEpochDay());
+		Assertions.assertEquals(540, message.getFromMinute());
+		Assertions.assertEquals(600, message.getTillMinute());
+
+		Assertions.assertFalse(
+				message.getRatings(0)
+						.hasText()
+		);
+		Score score = message.getRatings(1);
+		Assertions.assertEquals("u3", score.getVoter());
+		Assertions.assertEquals(5, score.getScore());
+		Assertions.assertEquals("great", score.getText());
+	}
+
+	@Test
+	void encodeValue_page_withSuccess() throws Exception {
+		VideoPageDto videoPage = new VideoPageDto(List.of(video(), video()), "next");
+
+		VideoPage message = VideoPage.parseFrom(encode(videoPage));
+
+		Assertions.assertEquals(2, message.getItemsCount());
+		Assertions.assertEquals("next", message.getNextCursor());
+	}
+
+	@Test
+	void encode_stream_writesDelimitedMessages() throws Exception {
+		VideoSummaryDto first = new VideoSummaryDto().toBuilder()
+				.id("v1")
+				.title("First")
+				.ratingCount(3)
+				.build();
+		VideoSummaryDto second = first.toBuilder()
+				.id("v2")
+				.title("Second")
+				.build();
+
+		byte[] bytes = bytes(
+				encoder.encode(
+						Flux.just(first, second), DefaultDataBufferFactory.sharedInstance,
+						ResolvableType.forClass(VideoSummaryDto.class), VideoProtobufEncoder.PROTOBUF, Map.of()
+				)
+		);
+
+		InputStream in = new ByteArrayInputStream(bytes);
+		List<Video> messages = new ArrayList<>();
+		Video message;
+		while ((message = Video.parseDelimitedFrom(in)) != null) {
+			messages.add(message);
+		}
+
+		Assertions.assertEquals(2, messages.size());
+		Assertions.assertEquals(
+				"Second", messages.get(1)
+						.getTitle()
+		);
+		Assertions.assertEquals(
+				3L, messages.get(1)
+						.getRatingCount()
+		);
+		Assertions.assertTrue(
+				messages.get(1)
+						.getUserId()
+						.isEmpty()
+		);
+	}
+
+	@Test
+	void canEncode_onlyMessageTypes() {
+		Assertions.assertTrue(encoder.canEncode(ResolvableType.forClass(VideoResponseDto.class), VideoProtobufEncoder.PROTOBUF));
+		Assertions.assertTrue(
+				encoder.canEncode(
+						ResolvableType.forClassWithGenerics(List.class, VideoSummaryDto.class), VideoProtobufEncoder.PROTOBUF
+				)
+		);
+		Assertions.assertFalse(encoder.canEncode(ResolvableType.forClass(Object.class), VideoProtobufEncoder.PROTOBUF));
+		// Only for Spring's ordering of the codecs
+		Assertions.assertTrue(encoder.canEncode(ResolvableType.forClass(Object.class), null));
+		Assertions.assertFalse(encoder.canEncode(ResolvableType.forClass(String.class), VideoProtobufEncoder.PROTOBUF));
+	}
+
+	private byte[] encode(Object value) {
+		return bytes(
+				encoder.encode(
+						Mono.just(value), DefaultDataBufferFactory.sharedInstance, ResolvableType.forInstance(value),
+						VideoProtobufEncoder.PROTOBUF, Map.of()
+				)
+		);
+	}
+
+	private static byte[] bytes(Flux<DataBuffer> buffers) {
+		DataBuffer joined = DataBufferUtils.join(buffers)
+				.block();
+		byte[] bytes = new byte[joined.readableByteCount()];
+		joined.read(bytes);
+		return bytes;
+	}
+
+	private static VideoResponseDto video() {
+		return new VideoResponseDto().toBuilder()
+				.id("v1")
+				.userId("u1")
+				.title("Morning run")
+				.day("2024-05-13")
+				.from("09:00")
+				.till("10:00")
+				.ratings(List.of(new ScoreDto("u2", 4, null), new ScoreDto("u3", 5, "great")))
+				.creator("u1")
+				.ratingCount(2)
+				.ratingSum(9)
+				.averageRating(4.5)
+				.isoYear(2024)
+				.isoWeek(20)
+				.epochDay(19856L)
+				.fromMinute(540)
+				.tillMinute(600)
+				.build();
+	}
+}
@@ -2,11 +2,10 @@ package com.nosetr.video.hub.controller;
 
 import java.text.SimpleDateFormat;
 import java.time.LocalDate;
-import java.time.temporal.WeekFields;
+import java.time.temporal.IsoFields;
 import java.util.Calendar;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 import java.util.Random;
 import java.util.UUID;
@@ -372,11 +371,8 @@ class ApiControllerTest {
 	@Order(11)
 	void getVideosOfTheWeek_withAuth_withSuccess() throws Exception {
 		LocalDate now = LocalDate.now();
-		int year = now.getYear();
-		int week = now.get(
-				WeekFields.of(Locale.getDefault())
-						.weekOfYear()
-		);
+		int year = now.get(IsoFields.WEEK_BASED_YEAR);
+		int week = now.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
 
 		List<VideoResponseDto> videos = webTestClient.get()
 				.uri(String.format("%s/by-week/%d/%d", urlString, year, week))
@@ -0,0 +1,314 @@
+package com.nosetr.video.hub.controller;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseToken;
+import com.nosetr.video.hub.dto.BatchItemResultDto;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Mixed read/vote/write load over HTTP against the in-memory repository, with
+ * a stubbed FirebaseAuth, so it runs without a Firebase project or network.
+ * Excluded from the default build, run it with
+ * {@code ./mvnw test -Pload-test}; the {@code load.*} properties below can be
+ * overridden with {@code -D}.
+ */
+@Slf4j
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"firebase.key=load", "rate-limit.enabled=false", "videos.repository.memory.latency=${load.latency:5ms}",
+		"logging.level.org.springframework=INFO"
+})
+@ActiveProfiles("memory")
+class ApiLoadTest {
+
+	private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+
+	@MockBean
+	private FirebaseApp firebaseApp;
+	@MockBean
+	private FirebaseAuth firebaseAuth;
+
+	@LocalServerPort
+	private int port;
+
+	@Value("${load.clients:64}")
+	private int clients;
+	@Value("${load.videos:2000}")
+	private int videos;
+	@Value("${load.warmup:5s}")
+	private Duration warmup;
+	@Value("${load.duration:20s}")
+	private Duration duration;
+	// Percentages of the requests, the remainder are video writes
+	@Value("${load.mix.read:70}")
+	private int readPercent;
+	@Value("${load.mix.vote:25}")
+	private int votePercent;
+
+	private WebClient webClient;
+	private List<String> videoIds;
+	// Request count per client, kept across warm-up and measurement
+	private AtomicLongArray sequences;
+
+	@Test
+	void mixedWorkload() throws Exception {
+		// Every bearer token is valid, the token is the user id
+		when(firebaseAuth.verifyIdToken(anyString())).thenAnswer(invocation -> token(invocation.getArgument(0)));
+
+		webClient = WebClient.builder()
+				.baseUrl("http://localhost:" + port)
+				.clientConnector(
+						new ReactorClientHttpConnector(
+								HttpClient.create(
+										ConnectionProvider.builder("load")
+												.maxConnections(clients)
+												.build()
+								)
+						)
+				)
+				.build();
+
+		videoIds = seed();
+		sequences = new AtomicLongArray(clients);
+		log.info("IN ApiLoadTest - seeded {} videos", videoIds.size());
+
+		run(warmup, new Stats());
+
+		Stats stats = new Stats();
+		run(duration, stats);
+		stats.report(duration);
+
+		Assertions.assertEquals(0, stats.failures(), "failed requests");
+	}
+
+	/**
+	 * Creates the videos to read and vote on through the batch endpoint.
+	 */
+	private List<String> seed() {
+		List<Map<String, String>> body = new ArrayList<>(videos);
+		for (int i = 0; i < videos; i++) {
+			body.add(video("seed " + i, FIRST_DAY.plusDays(i % 366)));
+		}
+
+		return Flux.fromIterable(body)
+				.buffer(500)
+				.concatMap(
+						chunk -> webClient.post()
+								.uri("/api/video/batch")
+								.header(HttpHeaders.AUTHORIZATION, "Bearer seed-user")
+								.contentType(MediaType.APPLICATION_JSON)
+								.bodyValue(chunk)
+								.retrieve()
+								.bodyToFlux(BatchItemResultDto.class)
+				)
+				.map(BatchItemResultDto::getId)
+				.collectList()
+				.block();
+	}
+
+	/**
+	 * {@code clients} concurrent clients, each sending one request after the
+	 * other until {@code time} has passed.
+	 */
+	private void run(Duration time, Stats stats) {
+		long deadline = System.nanoTime() + time.toNanos();
+
+		Flux.range(0, clients)
+				.flatMap(
+						client -> Mono.defer(() -> request(client, sequences.getAndIncrement(client), stats))
+								.repeat(() -> System.nanoTime() < deadline),
+						clients
+				)
+				.blockLast(time.plusMinutes(1));
+	}
+
+	private Mono<Void> request(int client, long sequence, Stats stats) {
+		int dice = ThreadLocalRandom.current()
+				.nextInt(100);
+
+		if (dice < readPercent) { return read(dice, stats); }
+		if (dice < readPercent + votePercent) { return vote(client, sequence, stats); }
+		return write(client, stats);
+	}
+
+	private Mono<Void> read(int dice, Stats stats) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+
+		return switch (dice % 4) {
+			case 0 -> exchange(stats.readPage, HttpMethod.GET, "/api/video?limit=50", "reader", null);
+			case 1 -> exchange(
+					stats.readWeek, HttpMethod.GET, "/api/by-week/2024/" + (random.nextInt(52) + 1), "reader", null
+			);
+			case 2 -> exchange(stats.readLeaderboard, HttpMethod.GET, "/api/leaderboard", "reader", null);
+			default -> exchange(stats.readUser, HttpMethod.GET, "/api/user/seed-user/stats", "reader", null);
+		};
+	}
+
+	/**
+	 * Every client walks the videos in its own order and votes with a new
+	 * voter per round, so no vote is a duplicate.
+	 */
+	private Mono<Void> vote(int client, long sequence, Stats stats) {
+		int index = (int) ((client * 7919L + sequence) % videoIds.size());
+		String voter = "voter-" + client + "-" + (sequence / videoIds.size());
+
+		return exchange(
+				stats.vote, HttpMethod.POST, "/api/video/" + videoIds.get(index), voter, Map.of(
+						"score", ThreadLocalRandom.current()
+								.nextInt(5) + 1
+				)
+		);
+	}
+
+	private Mono<Void> write(int client, Stats stats) {
+		LocalDate day = FIRST_DAY.plusDays(
+				ThreadLocalRandom.current()
+						.nextInt(366)
+		);
+
+		return exchange(stats.write, HttpMethod.POST, "/api/video", "writer-" + client, video("load", day));
+	}
+
+	private Mono<Void> exchange(Operation operation, HttpMethod method, String uri, String user, Object body) {
+		WebClient.RequestBodySpec spec = webClient.method(method)
+				.uri(uri)
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + user)
+				.accept(MediaType.APPLICATION_JSON);
+		WebClient.RequestHeadersSpec<?> request = (body == null) ? spec
+				: spec.contentType(MediaType.APPLICATION_JSON)
+						.bodyValue(body);
+
+		return Mono.defer(() -> {
+			long start = System.nanoTime();
+
+			return request.exchangeToMono(
+					response -> response.releaseBody()
+							.thenReturn(response.statusCode())
+			)
+					.doOnNext(status -> operation.record(System.nanoTime() - start, status.is2xxSuccessful()))
+					.onErrorResume(e -> {
+						operation.record(System.nanoTime() - start, false);
+						return Mono.empty();
+					})
+					.then();
+		});
+	}
+
+	private static Map<String, String> video(String title, LocalDate day) {
+		return Map.of("title", title, "day", day.toString(), "from", "09:00", "till", "10:00");
+	}
+
+	private static FirebaseToken token(String uid) {
+		FirebaseToken token = mock(FirebaseToken.class);
+		when(token.getUid()).thenReturn(uid);
+		when(token.getEmail()).thenReturn(uid + "@load.test");
+		when(token.getClaims()).thenReturn(
+				Map.of("exp", TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) + 3600)
+		);
+		return token;
+	}
+
+	private static class Operation {
+
+		private final String name;
+		private final Histogram latencies = new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(1), 3);
+		private final LongAdder failures = new LongAdder();
+
+		Operation(String name) {
+			this.name = name;
+		}
+
+		void record(long nanos, boolean success) {
+			latencies.recordValue(Math.min(nanos, latencies.getHighestTrackableValue()));
+			if (!success) { failures.increment(); }
+		}
+	}
+
+	private static class Stats {
+
+		final Operation readPage = new Operation("GET /api/video?limit=50");
+		final Operation readWeek = new Operation("GET /api/by-week/{y}/{w}");
+		final Operation readLeaderboard = new Operation("GET /api/leaderboard");
+		final Operation readUser = new Operation("GET /api/user/{id}/stats");
+		final Operation vote = new Operation("POST /api/video/{id}");
+		final Operation write = new Operation("POST /api/video");
+
+		List<Operation> all() {
+			return List.of(readPage, readWeek, readLeaderboard, readUser, vote, write);
+		}
+
+		long failures() {
+			return all().stream()
+					.mapToLong(operation -> operation.failures.sum())
+					.sum();
+		}
+
+		void report(Duration duration) {
+			double seconds = duration.toMillis() / 1000.0;
+			long total = 0;
+
+			StringBuilder report = new StringBuilder(
+					String.format(
+							"%n%-28s %9s %9s %8s %8s %8s %8s %8s %7s", "operation", "requests", "req/s", "p50 ms",
+							"p90 ms", "p99 ms", "p99.9 ms", "max ms", "failed"
+					)
+			);
+			for (Operation operation : all()) {
+				Histogram latencies = operation.latencies;
+				total += latencies.getTotalCount();
+				report.append(
+						String.format(
+								"%n%-28s %9d %9.1f %8.2f %8.2f %8.2f %8.2f %8.2f %7d", operation.name,
+								latencies.getTotalCount(), latencies.getTotalCount() / seconds,
+								millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(90)),
+								millis(latencies.getValueAtPercentile(99)), millis(latencies.getValueAtPercentile(99.9)),
+								millis(latencies.getMaxValue()), operation.failures.sum()
+						)
+				);
+			}
+			report.append(String.format("%n%-28s %9d %9.1f", "total", total, total / seconds));
+
+			log.info("IN ApiLoadTest - {}", report);
+		}
+
+		private static double millis(long nanos) {
+			return nanos / 1_000_000.0;
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package com.nosetr.video.hub.controller;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.nosetr.video.hub.dto.VideoResponseDto;
+import com.nosetr.video.hub.view.VideoCollectionVersion;
+import com.nosetr.video.hub.view.VideoView;
+
+import reactor.core.publisher.Flux;
+
+class ConditionalGetFilterTest {
+
+	private final VideoView videoView = mock(VideoView.class);
+	private final VideoCollectionVersion collectionVersion = new VideoCollectionVersion();
+
+	private WebTestClient client;
+
+	@BeforeEach
+	void setUp() {
+		when(videoView.isReady()).thenReturn(true);
+
+		client = WebTestClient.bindToController(new VideoReads())
+				.webFilter(new ConditionalGetFilter(videoView, collectionVersion))
+				.build();
+	}
+
+	@Test
+	void get_matchingIfNoneMatch_notModified() {
+		String etag = etag("/api/video");
+
+		client.get()
+				.uri("/api/video")
+				.header(HttpHeaders.IF_NONE_MATCH, etag)
+				.exchange()
+				.expectStatus()
+				.isNotModified()
+				.expectBody()
+				.isEmpty();
+	}
+
+	@Test
+	void get_afterWrite_newETag() {
+		String etag = etag("/api/video");
+
+		collectionVersion.onVideoChanged(null, new VideoResponseDto());
+
+		client.get()
+				.uri("/api/video")
+				.header(HttpHeaders.IF_NONE_MATCH, etag)
+				.exchange()
+				.expectStatus()
+				.isOk();
+		Assertions.assertNotEquals(etag, etag("/api/video"));
+	}
+
+	@Test
+	void get_viewNotReady_noETag() {
+		when(videoView.isReady()).thenReturn(false);
+
+		client.get()
+				.uri("/api/video")
+				.header(HttpHeaders.IF_NONE_MATCH, "*")
+				.exchange()
+				.expectStatus()
+				.isOk()
+				.expectHeader()
+				.doesNotExist(HttpHeaders.ETAG);
+	}
+
+	@Test
+	void get_eventStream_noETag() {
+		client.get()
+				.uri("/api/video/stream")
+				.header(HttpHeaders.IF_NONE_MATCH, "*")
+				.exchange()
+				.expectStatus()
+				.isOk()
+				.expectHeader()
+				.doesNotExist(HttpHeaders.ETAG);
+	}
+
+	private String etag(String uri) {
+		String etag = client.get()
+				.uri(uri)
+				.exchange()
+				.expectStatus()
+				.isOk()
+				.returnResult(String.class)
+				.getResponseHeaders()
+				.getETag();
+		Assertions.assertTrue(etag.startsWith("W/"), etag);
+		return etag;
+	}
+
+	@RestController
+	static class VideoReads {
+
+		@GetMapping("/api/video")
+		public List<String> videos() {
+			return List.of("v1");
+		}
+
+		@GetMapping(value = "/api/video/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+		public Flux<String> stream() {
+			return Flux.just("v1");
+		}
+	}
+}
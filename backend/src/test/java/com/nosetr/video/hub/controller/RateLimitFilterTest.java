@@ -0,0 +1,124 @@
+package com.nosetr.video.hub.controller;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.adapter.ForwardedHeaderTransformer;
+
+import com.nosetr.video.hub.config.RateLimitProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class RateLimitFilterTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void filter_overTheRate_429WithRetryAfterRoundedUp() {
+		RateLimitFilter filter = filter(1, 0.4);
+
+		MockServerWebExchange first = exchange("10.0.0.1");
+		filter.filter(first, exchange -> Mono.empty())
+				.block();
+		Assertions.assertNull(
+				first.getResponse()
+						.getStatusCode()
+		);
+
+		MockServerWebExchange second = exchange("10.0.0.1");
+		filter.filter(second, exchange -> Mono.error(new AssertionError("Not rate limited")))
+				.block();
+
+		Assertions.assertEquals(
+				HttpStatus.TOO_MANY_REQUESTS, second.getResponse()
+						.getStatusCode()
+		);
+		// The next token in 2.5 s
+		Assertions.assertEquals(
+				"3", second.getResponse()
+						.getHeaders()
+						.getFirst(HttpHeaders.RETRY_AFTER)
+		);
+		Assertions.assertEquals(
+				1, meterRegistry.counter("http.server.requests.rate.limited", "uri", "/api/video")
+						.count()
+		);
+	}
+
+	@Test
+	void filter_otherClientOrRoute_notLimited() {
+		RateLimitFilter filter = filter(1, 0.4);
+		filter.filter(exchange("10.0.0.1"), exchange -> Mono.empty())
+				.block();
+
+		MockServerWebExchange otherClient = exchange("10.0.0.2");
+		filter.filter(otherClient, exchange -> Mono.empty())
+				.block();
+		Assertions.assertNull(
+				otherClient.getResponse()
+						.getStatusCode()
+		);
+
+		MockServerWebExchange read = MockServerWebExchange.from(
+				MockServerHttpRequest.get("/api/video")
+						.remoteAddress(new InetSocketAddress("10.0.0.1", 4000))
+		);
+		filter.filter(read, exchange -> Mono.empty())
+				.block();
+		Assertions.assertNull(
+				read.getResponse()
+						.getStatusCode()
+		);
+	}
+
+	@Test
+	void filter_behindProxy_keyedByForwardedClient() {
+		RateLimitFilter filter = filter(1, 0.4);
+		ForwardedHeaderTransformer forwarded = new ForwardedHeaderTransformer();
+
+		// Both from the proxy's address, for two different clients
+		for (String client : List.of("203.0.113.1", "203.0.113.2")) {
+			MockServerWebExchange proxied = MockServerWebExchange.from(
+					MockServerHttpRequest.post("/api/video")
+							.remoteAddress(new InetSocketAddress("10.0.0.9", 4000))
+							.header("X-Forwarded-For", client)
+			);
+			ServerWebExchange exchange = proxied.mutate()
+					.request(forwarded.apply(proxied.getRequest()))
+					.build();
+			filter.filter(exchange, chain -> Mono.empty())
+					.block();
+			Assertions.assertNull(
+					exchange.getResponse()
+							.getStatusCode()
+			);
+		}
+	}
+
+	private RateLimitFilter filter(int capacity, double refillPerSecond) {
+		RateLimitProperties.Route route = new RateLimitProperties.Route();
+		route.setPath("/api/video");
+		route.setKey(RateLimitProperties.KeyType.IP);
+		route.setCapacity(capacity);
+		route.setRefillPerSecond(refillPerSecond);
+
+		RateLimitProperties properties = new RateLimitProperties();
+		properties.setRoutes(List.of(route));
+		return new RateLimitFilter(properties, meterRegistry);
+	}
+
+	private static MockServerWebExchange exchange(String address) {
+		return MockServerWebExchange.from(
+				MockServerHttpRequest.post("/api/video")
+						.remoteAddress(new InetSocketAddress(address, 4000))
+		);
+	}
+}
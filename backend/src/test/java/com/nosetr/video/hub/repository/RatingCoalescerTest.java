@@ -0,0 +1,125 @@
+package com.nosetr.video.hub.repository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.nosetr.video.hub.dto.ScoreDto;
+import com.nosetr.video.hub.dto.VideoDto;
+import com.nosetr.video.hub.repository.impl.InMemoryVideoRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+class RatingCoalescerTest {
+
+	private final CountingRepository videoRepository = new CountingRepository();
+
+	@Test
+	void submit_concurrentVotes_writtenInBatches() {
+		String videoId = video();
+		RatingCoalescer coalescer = new RatingCoalescer(videoRepository, true, Duration.ofMillis(50), 10);
+
+		Map<String, RatingOutcome> outcomes = new ConcurrentHashMap<>();
+		Flux.range(0, 40)
+				.parallel(8)
+				.runOn(Schedulers.parallel())
+				.flatMap(
+						i -> coalescer.submit(videoId, new ScoreDto("voter" + i, 4, null))
+								.doOnNext(outcome -> outcomes.put("voter" + i, outcome))
+				)
+				.sequential()
+				.blockLast(Duration.ofSeconds(5));
+
+		Assertions.assertEquals(40, outcomes.size());
+		Assertions.assertTrue(
+				outcomes.values()
+						.stream()
+						.allMatch(RatingOutcome.ADDED::equals)
+		);
+		// At most 10 votes per write, fewer writes than votes
+		Assertions.assertTrue(videoRepository.calls.get() >= 4 && videoRepository.calls.get() < 40);
+		Assertions.assertEquals(
+				40, videoRepository.findPage(1, null)
+						.block()
+						.get(0)
+						.getRatingCount()
+		);
+	}
+
+	@Test
+	void submit_duplicateAndOwnVotesInOneWindow_eachCallerGetsItsOutcome() {
+		String videoId = video();
+		RatingCoalescer coalescer = new RatingCoalescer(videoRepository, true, Duration.ofMillis(50), 10);
+
+		List<RatingOutcome> outcomes = Flux.merge(
+				coalescer.submit(videoId, new ScoreDto("u2", 4, null)),
+				coalescer.submit(videoId, new ScoreDto("u2", 5, null)),
+				coalescer.submit(videoId, new ScoreDto("u1", 5, null)),
+				coalescer.submit(videoId, new ScoreDto("u3", 3, null))
+		)
+				.collectList()
+				.block(Duration.ofSeconds(5));
+
+		Assertions.assertEquals(1, videoRepository.calls.get());
+		Assertions.assertEquals(
+				List.of(RatingOutcome.ADDED, RatingOutcome.ALREADY_VOTED, RatingOutcome.OWN_VIDEO, RatingOutcome.ADDED),
+				outcomes
+		);
+	}
+
+	@Test
+	void submit_repositoryThrows_everyVoteFails() {
+		String videoId = video();
+		videoRepository.failing = true;
+		RatingCoalescer coalescer = new RatingCoalescer(videoRepository, true, Duration.ofMillis(20), 10);
+
+		List<Throwable> errors = Flux.merge(
+				coalescer.submit(videoId, new ScoreDto("u2", 4, null))
+						.then(Mono.<Throwable>empty())
+						.onErrorResume(Mono::just),
+				coalescer.submit(videoId, new ScoreDto("u3", 5, null))
+						.then(Mono.<Throwable>empty())
+						.onErrorResume(Mono::just)
+		)
+				.collectList()
+				.block(Duration.ofSeconds(5));
+
+		Assertions.assertEquals(2, errors.size());
+		Assertions.assertEquals(
+				"no client", errors.get(0)
+						.getMessage()
+		);
+	}
+
+	private String video() {
+		return videoRepository.save(
+				new VideoDto().toBuilder()
+						.userId("u1")
+						.title("Run")
+						.build()
+		)
+				.block();
+	}
+
+	private static final class CountingRepository extends InMemoryVideoRepository {
+
+		private final AtomicInteger calls = new AtomicInteger();
+		private volatile boolean failing;
+
+		@Override
+		public Mono<List<RatingOutcome>> addRatings(String videoId, List<ScoreDto> scoreDtos) {
+			calls.incrementAndGet();
+			// Fails before returning a Mono, like a call building its request eagerly
+			if (failing) { throw new IllegalStateException("no client"); }
+
+			return super.addRatings(videoId, scoreDtos);
+		}
+	}
+}
@@ -0,0 +1,131 @@
+package com.nosetr.video.hub.repository;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.nosetr.video.hub.dto.VideoDto;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class VideoWritePipelineTest {
+
+	private final VideoRepository videoRepository = mock(VideoRepository.class);
+	private VideoWritePipeline pipeline;
+
+	@AfterEach
+	void tearDown() {
+		pipeline.stop();
+	}
+
+	@Test
+	void submit_coalescedIntoOneBatch() {
+		when(videoRepository.saveAll(anyList())).thenAnswer(
+				invocation -> Mono.just(
+						invocation.<List<VideoDto>>getArgument(0)
+								.stream()
+								.map(VideoDto::getTitle)
+								.toList()
+				)
+		);
+		pipeline = start(100, 4, 10, Duration.ofMillis(50));
+
+		List<String> ids = Flux.range(0, 5)
+				.flatMap(i -> pipeline.submit(video("video-" + i)))
+				.collectList()
+				.block();
+
+		verify(videoRepository, times(1)).saveAll(anyList());
+		Assertions.assertEquals(
+				List.of("video-0", "video-1", "video-2", "video-3", "video-4"), ids.stream()
+						.sorted()
+						.toList()
+		);
+		Assertions.assertEquals(5, pipeline.getCompleted());
+		Assertions.assertEquals(0, pipeline.getQueueDepth());
+	}
+
+	@Test
+	void submit_queueFull_rejected() {
+		// The first batch never completes, the next writes stay queued
+		when(videoRepository.saveAll(anyList())).thenReturn(Mono.never());
+		pipeline = start(2, 1, 1, Duration.ofMillis(1));
+
+		IntStream.range(0, 3)
+				.forEach(
+						i -> pipeline.submit(video("video-" + i))
+								.subscribe()
+				);
+
+		StepVerifier.create(pipeline.submit(video("rejected")))
+				.expectErrorSatisfies(e -> {
+					Assertions.assertInstanceOf(WriteQueueFullException.class, e);
+					Assertions.assertEquals(Duration.ofSeconds(3), ((WriteQueueFullException) e).getRetryAfter());
+				})
+				.verify(Duration.ofSeconds(5));
+		Assertions.assertEquals(1, pipeline.getRejected());
+		Assertions.assertEquals(2, pipeline.getQueueDepth());
+	}
+
+	@Test
+	void submit_batchFails_everyWriteFails() {
+		when(videoRepository.saveAll(anyList())).thenReturn(Mono.error(new IllegalStateException("unavailable")));
+		pipeline = start(100, 4, 10, Duration.ofMillis(50));
+
+		List<Throwable> errors = Flux.range(0, 3)
+				.flatMap(
+						i -> pipeline.submit(video("video-" + i))
+								.then(Mono.<Throwable>empty())
+								.onErrorResume(Mono::just)
+				)
+				.collectList()
+				.block();
+
+		Assertions.assertEquals(3, errors.size());
+		errors.forEach(e -> Assertions.assertEquals("unavailable", e.getMessage()));
+		Assertions.assertEquals(3, pipeline.getFailed());
+
+		// The pipeline keeps writing after a failed batch
+		when(videoRepository.saveAll(anyList())).thenReturn(Mono.just(List.of("id")));
+		Assertions.assertEquals(
+				"id", pipeline.submit(video("next"))
+						.block(Duration.ofSeconds(5))
+		);
+	}
+
+	@Test
+	void submit_afterStop_fails() {
+		pipeline = start(100, 4, 10, Duration.ofMillis(50));
+		pipeline.stop();
+
+		StepVerifier.create(pipeline.submit(video("late")))
+				.expectError(IllegalStateException.class)
+				.verify(Duration.ofSeconds(5));
+	}
+
+	private VideoWritePipeline start(int queueCapacity, int maxInFlight, int maxBatchSize, Duration maxDelay) {
+		VideoWritePipeline started = new VideoWritePipeline(
+				videoRepository, queueCapacity, maxInFlight, maxBatchSize, maxDelay, Duration.ofSeconds(3)
+		);
+		started.start();
+		return started;
+	}
+
+	private static VideoDto video(String title) {
+		return new VideoDto().toBuilder()
+				.title(title)
+				.build();
+	}
+}
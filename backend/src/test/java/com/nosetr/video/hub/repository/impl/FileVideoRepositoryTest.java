@@ -0,0 +1,94 @@
+package com.nosetr.video.hub.repository.impl;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nosetr.video.hub.dto.VideoDto;
+import com.nosetr.video.hub.dto.VideoResponseDto;
+import com.nosetr.video.hub.repository.VideoDocumentChange;
+
+class FileVideoRepositoryTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void saveAll_oneJournalLine_restoredAfterRestart() throws IOException {
+		Path path = directory.resolve("videos.jsonl");
+		FileVideoRepository repository = open(path);
+
+		String single = repository.save(video("Single"))
+				.block();
+		List<String> batch = repository.saveAll(List.of(video("One"), video("Two")))
+				.block();
+		repository.close();
+
+		List<String> lines = Files.readAllLines(path);
+		Assertions.assertEquals(2, lines.size());
+		Assertions.assertTrue(
+				lines.get(1)
+						.startsWith("[")
+		);
+
+		FileVideoRepository reopened = open(path);
+		Assertions.assertEquals(3, reopened.size());
+		Assertions.assertEquals(
+				Set.of(single, batch.get(0), batch.get(1)), reopened.findPage(10, null)
+						.block()
+						.stream()
+						.map(VideoResponseDto::getId)
+						.collect(Collectors.toSet())
+		);
+		reopened.close();
+	}
+
+	@Test
+	void open_batchCutOffByACrash_skippedAsAWhole() throws IOException {
+		Path path = directory.resolve("videos.jsonl");
+		FileVideoRepository repository = open(path);
+		repository.save(video("Single"))
+				.block();
+		repository.close();
+
+		// The journal line of a batch whose write was interrupted
+		String batch = objectMapper.writeValueAsString(
+				List.of(
+						new VideoDocumentChange("a", null),
+						new VideoDocumentChange("b", null)
+				)
+		);
+		Files.writeString(
+				path, batch.substring(0, batch.length() / 2), StandardCharsets.UTF_8, StandardOpenOption.APPEND
+		);
+
+		FileVideoRepository reopened = open(path);
+		Assertions.assertEquals(1, reopened.size());
+		reopened.close();
+	}
+
+	private FileVideoRepository open(Path path) throws IOException {
+		FileVideoRepository repository = new FileVideoRepository(objectMapper, path.toString(), false);
+		repository.open();
+		return repository;
+	}
+
+	private static VideoDto video(String title) {
+		return new VideoDto().toBuilder()
+				.userId("u1")
+				.title(title)
+				.build();
+	}
+}
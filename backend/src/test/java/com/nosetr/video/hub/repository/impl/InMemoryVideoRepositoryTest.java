@@ -0,0 +1,135 @@
+package com.nosetr.video.hub.repository.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.nosetr.video.hub.dto.ScoreDto;
+import com.nosetr.video.hub.dto.VideoDto;
+import com.nosetr.video.hub.repository.RatingOutcome;
+import com.nosetr.video.hub.repository.VideoDocumentChange;
+
+class InMemoryVideoRepositoryTest {
+
+	@Test
+	void save_persistFails_nothingAppliedOrPublished() {
+		RecordingRepository repository = new RecordingRepository();
+		List<VideoDocumentChange> published = Collections.synchronizedList(new ArrayList<>());
+		repository.listen(published::addAll, e -> {});
+
+		repository.failing = true;
+		Assertions.assertThrows(
+				IllegalStateException.class, () -> repository.save(video("Lost"))
+						.block()
+		);
+
+		Assertions.assertEquals(0, repository.size());
+		Assertions.assertTrue(published.isEmpty());
+	}
+
+	@Test
+	void save_offTheSubscribingThread() {
+		RecordingRepository repository = new RecordingRepository();
+
+		repository.save(video("Run"))
+				.block();
+
+		Assertions.assertTrue(
+				repository.threads.get(0)
+						.startsWith("boundedElastic"),
+				repository.threads.get(0)
+		);
+	}
+
+	@Test
+	void saveAll_oneWrite() {
+		RecordingRepository repository = new RecordingRepository();
+		List<List<VideoDocumentChange>> published = Collections.synchronizedList(new ArrayList<>());
+		repository.listen(published::add, e -> {});
+
+		List<String> ids = repository.saveAll(List.of(video("One"), video("Two"), video("Three")))
+				.block();
+
+		Assertions.assertEquals(1, repository.threads.size());
+		Assertions.assertEquals(ids, repository.persisted);
+		Assertions.assertEquals(
+				ids, published.get(1)
+						.stream()
+						.map(VideoDocumentChange::id)
+						.toList()
+		);
+	}
+
+	@Test
+	void addRatings_listenersRunOutsideTheWriteLock() {
+		RecordingRepository repository = new RecordingRepository();
+		List<Boolean> locked = Collections.synchronizedList(new ArrayList<>());
+		repository.listen(changes -> locked.add(Thread.holdsLock(repository.writeLock)), e -> {});
+
+		String id = repository.save(video("Run"))
+				.block();
+		List<RatingOutcome> outcomes = repository.addRatings(
+				id, List.of(new ScoreDto("u2", 4, null), new ScoreDto("u2", 5, null), new ScoreDto("u1", 5, null))
+		)
+				.block();
+
+		Assertions.assertEquals(List.of(RatingOutcome.ADDED, RatingOutcome.ALREADY_VOTED, RatingOutcome.OWN_VIDEO), outcomes);
+		Assertions.assertEquals(List.of(false, false, false), locked);
+	}
+
+	@Test
+	void concurrentWrites_publishedInPersistOrder() throws InterruptedException {
+		RecordingRepository repository = new RecordingRepository();
+		List<String> published = Collections.synchronizedList(new ArrayList<>());
+		repository.listen(
+				changes -> changes.forEach(change -> published.add(change.id())), e -> {}
+		);
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		for (int i = 0; i < 400; i++) {
+			executor.execute(
+					() -> repository.save(video("Run"))
+							.block()
+			);
+		}
+		executor.shutdown();
+		Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+		Assertions.assertEquals(400, Set.copyOf(published)
+				.size());
+		Assertions.assertEquals(repository.persisted, published);
+	}
+
+	private static VideoDto video(String title) {
+		return new VideoDto().toBuilder()
+				.userId("u1")
+				.title(title)
+				.build();
+	}
+
+	private static final class RecordingRepository extends InMemoryVideoRepository {
+
+		private final List<String> persisted = new ArrayList<>();
+		// Thread of every persisted write
+		private final List<String> threads = new ArrayList<>();
+		private volatile boolean failing;
+
+		@Override
+		protected void persist(List<VideoDocumentChange> changes) {
+			if (failing) { throw new IllegalStateException("disk full"); }
+
+			changes.forEach(change -> persisted.add(change.id()));
+			threads.add(
+					Thread.currentThread()
+							.getName()
+			);
+		}
+	}
+}
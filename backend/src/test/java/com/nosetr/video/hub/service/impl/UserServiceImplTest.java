@@ -0,0 +1,182 @@
+package com.nosetr.video.hub.service.impl;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.google.firebase.auth.ErrorInfo;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.GetUsersResult;
+import com.google.firebase.auth.ImportUserRecord;
+import com.google.firebase.auth.UserImportResult;
+import com.google.firebase.auth.UserRecord;
+import com.nosetr.video.hub.dto.BatchItemResultDto;
+import com.nosetr.video.hub.dto.UserDto;
+import com.nosetr.video.hub.util.FirebaseMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+class UserServiceImplTest {
+
+	private static final String HASH = BCrypt.hashpw("secret1", BCrypt.gensalt(4));
+
+	private final FirebaseAuth firebaseAuth = mock(FirebaseAuth.class);
+	// Sizes of the importUsers calls
+	private final List<Integer> imports = Collections.synchronizedList(new ArrayList<>());
+
+	private UserServiceImpl userService;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() throws Exception {
+		ObjectProvider<FirebaseAuth> provider = mock(ObjectProvider.class);
+		when(provider.getObject()).thenReturn(firebaseAuth);
+
+		userService = new UserServiceImpl(
+				provider, Schedulers.boundedElastic(), new FirebaseMetrics(new SimpleMeterRegistry())
+		);
+		ReflectionTestUtils.setField(userService, "importBatchSize", 2);
+		ReflectionTestUtils.setField(userService, "importConcurrency", 2);
+		ReflectionTestUtils.setField(userService, "bcryptStrength", 4);
+
+		GetUsersResult none = mock(GetUsersResult.class);
+		when(none.getUsers()).thenReturn(Set.of());
+		when(firebaseAuth.getUsers(anyList())).thenReturn(none);
+		when(firebaseAuth.importUsers(anyList(), any())).thenAnswer(invocation -> {
+			imports.add(
+					invocation.<List<ImportUserRecord>>getArgument(0)
+							.size()
+			);
+			UserImportResult result = mock(UserImportResult.class);
+			when(result.getErrors()).thenReturn(List.of());
+			return result;
+		});
+	}
+
+	@Test
+	void importUsers_oneImportPerChunk_resultsInRequestOrder() {
+		List<BatchItemResultDto> results = userService.importUsers(
+				Flux.range(0, 5)
+						.map(i -> user("user" + i + "@example.com", "secret" + i, null))
+		)
+				.collectList()
+				.block();
+
+		Assertions.assertEquals(List.of(2, 2, 1), imports);
+		for (int i = 0; i < results.size(); i++) {
+			Assertions.assertEquals(
+					i, results.get(i)
+							.getIndex()
+			);
+			Assertions.assertEquals(
+					200, results.get(i)
+							.getStatus()
+			);
+			Assertions.assertNotNull(
+					results.get(i)
+							.getId()
+			);
+		}
+	}
+
+	@Test
+	void importUsers_duplicateEmails_conflict() throws Exception {
+		UserRecord existing = mock(UserRecord.class);
+		when(existing.getEmail()).thenReturn("taken@example.com");
+		GetUsersResult found = mock(GetUsersResult.class);
+		when(found.getUsers()).thenReturn(Set.of(existing));
+		when(firebaseAuth.getUsers(anyList())).thenReturn(found);
+
+		List<BatchItemResultDto> results = userService.importUsers(
+				Flux.just(
+						user("new@example.com", null, HASH), user("NEW@example.com", null, HASH),
+						user("taken@example.com", null, HASH)
+				)
+		)
+				.collectList()
+				.block();
+
+		Assertions.assertEquals(List.of(200, 409, 409), statuses(results));
+		Assertions.assertEquals(
+				"The email occurs more than once in the request", results.get(1)
+						.getMessage()
+		);
+		Assertions.assertEquals(
+				"A user with this email already exists", results.get(2)
+						.getMessage()
+		);
+		Assertions.assertEquals(List.of(1), imports);
+	}
+
+	@Test
+	void importUsers_invalidRecords_rejectedOneByOne() throws Exception {
+		UserImportResult partial = mock(UserImportResult.class);
+		ErrorInfo error = mock(ErrorInfo.class);
+		when(error.getIndex()).thenReturn(0);
+		when(error.getReason()).thenReturn("Invalid email");
+		when(partial.getErrors()).thenReturn(List.of(error));
+		when(firebaseAuth.importUsers(anyList(), any())).thenReturn(partial);
+		ReflectionTestUtils.setField(userService, "importBatchSize", 10);
+
+		List<BatchItemResultDto> results = userService.importUsers(
+				Flux.just(
+						user("rejected@example.com", "secret1", null), user("nopassword@example.com", null, null),
+						user("badhash@example.com", null, "plain"), user("short@example.com", "abc", null),
+						user("ok@example.com", "secret1", null)
+				)
+		)
+				.collectList()
+				.block();
+
+		Assertions.assertEquals(List.of(400, 400, 400, 400, 200), statuses(results));
+		Assertions.assertEquals(
+				List.of(
+						"Invalid email", "A password or a password hash is required", "The password hash must be a bcrypt hash",
+						"The password must be at least 6 characters long", "User successfully imported."
+				), results.stream()
+						.map(BatchItemResultDto::getMessage)
+						.toList()
+		);
+	}
+
+	@Test
+	void importUsers_noValidRecord_noFirebaseCall() throws Exception {
+		List<BatchItemResultDto> results = userService.importUsers(Flux.just(user("nopassword@example.com", null, null)))
+				.collectList()
+				.block();
+
+		Assertions.assertEquals(List.of(400), statuses(results));
+		verify(firebaseAuth, never()).importUsers(anyList(), any());
+	}
+
+	private static List<Integer> statuses(List<BatchItemResultDto> results) {
+		return results.stream()
+				.map(BatchItemResultDto::getStatus)
+				.toList();
+	}
+
+	private static UserDto user(String email, String password, String passwordHash) {
+		return new UserDto().toBuilder()
+				.email(email)
+				.password(password)
+				.passwordHash(passwordHash)
+				.build();
+	}
+}
@@ -0,0 +1,61 @@
+package com.nosetr.video.hub.service.impl;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.nosetr.video.hub.dto.VideoDto;
+import com.nosetr.video.hub.repository.RatingCoalescer;
+import com.nosetr.video.hub.repository.VideoRepository;
+import com.nosetr.video.hub.repository.VideoWritePipeline;
+import com.nosetr.video.hub.repository.WriteQueueFullException;
+import com.nosetr.video.hub.view.LeaderboardIndex;
+import com.nosetr.video.hub.view.TimeRangeIndex;
+import com.nosetr.video.hub.view.TitleSearchIndex;
+import com.nosetr.video.hub.view.UserStatsIndex;
+import com.nosetr.video.hub.view.VideoFeed;
+import com.nosetr.video.hub.view.VideoView;
+import com.nosetr.video.hub.view.WeeklyRollupIndex;
+
+import reactor.core.publisher.Mono;
+
+class VideoServiceImplTest {
+
+	private final VideoWritePipeline videoWritePipeline = mock(VideoWritePipeline.class);
+
+	private final VideoServiceImpl videoService = new VideoServiceImpl(
+			mock(VideoRepository.class), videoWritePipeline, mock(RatingCoalescer.class), mock(VideoView.class),
+			mock(LeaderboardIndex.class), mock(VideoFeed.class), mock(UserStatsIndex.class), mock(TitleSearchIndex.class),
+			new TimeRangeIndex(), mock(WeeklyRollupIndex.class)
+	);
+
+	@Test
+	void setVideo_queueFull_tooManyRequests() {
+		when(videoWritePipeline.submit(any())).thenReturn(Mono.error(new WriteQueueFullException(Duration.ofSeconds(3))));
+
+		ResponseEntity<String> response = videoService.setVideo(
+				new VideoDto().toBuilder()
+						.userId("u1")
+						.title("Run")
+						.day("2024-01-01")
+						.from("09:00")
+						.till("10:00")
+						.build()
+		)
+				.block();
+
+		Assertions.assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+		Assertions.assertEquals(
+				"3", response.getHeaders()
+						.getFirst(HttpHeaders.RETRY_AFTER)
+		);
+	}
+}
@@ -0,0 +1,49 @@
+package com.nosetr.video.hub.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.google.api.core.SettableApiFuture;
+
+class ApiFutureUtilTest {
+
+	private static final Executor REJECTING = command -> {
+		throw new RejectedExecutionException("queue full");
+	};
+
+	@Test
+	void toCompletableFuture_withSuccess() throws Exception {
+		SettableApiFuture<String> apiFuture = SettableApiFuture.create();
+		CompletableFuture<String> future = ApiFutureUtil.toCompletableFuture(apiFuture, Runnable::run);
+
+		apiFuture.set("id");
+
+		Assertions.assertEquals("id", future.get(1, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void toCompletableFuture_withError_unwrapsCause() {
+		SettableApiFuture<String> apiFuture = SettableApiFuture.create();
+		CompletableFuture<String> future = ApiFutureUtil.toCompletableFuture(apiFuture, Runnable::run);
+
+		apiFuture.setException(new IllegalStateException("failed"));
+
+		Assertions.assertInstanceOf(IllegalStateException.class, future.handle((value, e) -> e)
+				.join());
+	}
+
+	@Test
+	void toCompletableFuture_rejectedByExecutor_stillCompletes() throws Exception {
+		SettableApiFuture<String> apiFuture = SettableApiFuture.create();
+		CompletableFuture<String> future = ApiFutureUtil.toCompletableFuture(apiFuture, REJECTING);
+
+		apiFuture.set("id");
+
+		Assertions.assertEquals("id", future.get(1, TimeUnit.SECONDS));
+	}
+}
@@ -0,0 +1,110 @@
+package com.nosetr.video.hub.util;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketLimiterTest {
+
+	private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+	@Test
+	void tryAcquire_burstOfCapacity_thenRejected() {
+		TokenBucketLimiter limiter = new TokenBucketLimiter(5, 1, 100, now::get);
+
+		for (int i = 0; i < 5; i++) {
+			Assertions.assertEquals(Duration.ZERO, limiter.tryAcquire("u1"), "token " + i);
+		}
+		Assertions.assertTrue(
+				limiter.tryAcquire("u1")
+						.isPositive()
+		);
+		// Buckets are per key
+		Assertions.assertEquals(Duration.ZERO, limiter.tryAcquire("u2"));
+	}
+
+	@Test
+	void tryAcquire_emptyBucket_refillsOneTokenPerInterval() {
+		TokenBucketLimiter limiter = new TokenBucketLimiter(2, 4, 100, now::get);
+		limiter.tryAcquire("u1");
+		limiter.tryAcquire("u1");
+
+		// 4 tokens per second: the next one after 250 ms
+		Assertions.assertEquals(Duration.ofMillis(250), limiter.tryAcquire("u1"));
+
+		advance(Duration.ofMillis(249));
+		Assertions.assertEquals(Duration.ofMillis(1), limiter.tryAcquire("u1"));
+
+		advance(Duration.ofMillis(1));
+		Assertions.assertEquals(Duration.ZERO, limiter.tryAcquire("u1"));
+		Assertions.assertEquals(Duration.ofMillis(250), limiter.tryAcquire("u1"));
+
+		// Never more than the capacity, however long the bucket was idle
+		advance(Duration.ofSeconds(10));
+		Assertions.assertEquals(Duration.ZERO, limiter.tryAcquire("u1"));
+		Assertions.assertEquals(Duration.ZERO, limiter.tryAcquire("u1"));
+		Assertions.assertTrue(
+				limiter.tryAcquire("u1")
+						.isPositive()
+		);
+	}
+
+	@Test
+	void tryAcquire_slowRefill_waitIsTheTimeUntilTheNextToken() {
+		// The import route: 2 requests, then one every 20 seconds
+		TokenBucketLimiter limiter = new TokenBucketLimiter(2, 0.05, 100, now::get);
+		limiter.tryAcquire("admin");
+		limiter.tryAcquire("admin");
+
+		Assertions.assertEquals(Duration.ofSeconds(20), limiter.tryAcquire("admin"));
+
+		advance(Duration.ofMillis(12_500));
+		Assertions.assertEquals(Duration.ofMillis(7_500), limiter.tryAcquire("admin"));
+	}
+
+	@Test
+	void tryAcquire_concurrentCallers_admitExactlyTheCapacity() throws InterruptedException {
+		TokenBucketLimiter limiter = new TokenBucketLimiter(50, 1, 100, now::get);
+		AtomicInteger admitted = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		for (int i = 0; i < 8; i++) {
+			executor.execute(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (int j = 0; j < 100; j++) {
+					if (
+						limiter.tryAcquire("u1")
+								.isZero()
+					) { admitted.incrementAndGet(); }
+				}
+			});
+		}
+		start.countDown();
+		executor.shutdown();
+		Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+		Assertions.assertEquals(50, admitted.get());
+	}
+
+	@Test
+	void constructor_invalidRate_throws() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new TokenBucketLimiter(0, 1, 100));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new TokenBucketLimiter(1, 0, 100));
+	}
+
+	private void advance(Duration duration) {
+		now.addAndGet(duration.toNanos());
+	}
+}
@@ -0,0 +1,93 @@
+package com.nosetr.video.hub.util;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.nosetr.video.hub.dto.VideoDto;
+import com.nosetr.video.hub.dto.VideoResponseDto;
+
+class VideoDateUtilTest {
+
+	@Test
+	void applyDateFields_atYearBoundary_usesWeekBasedYear() {
+		VideoDto videoDto = new VideoDto().toBuilder()
+				.day("2021-01-01") // Friday of ISO week 53 of 2020
+				.build();
+
+		VideoDateUtil.applyDateFields(videoDto);
+
+		Assertions.assertEquals(2020, videoDto.getIsoYear());
+		Assertions.assertEquals(53, videoDto.getIsoWeek());
+		Assertions.assertEquals(
+				LocalDate.of(2021, 1, 1)
+						.toEpochDay(),
+				videoDto.getEpochDay()
+		);
+	}
+
+	@Test
+	void applyDateFields_storedVideo_withSuccess() {
+		VideoResponseDto video = new VideoResponseDto().toBuilder()
+				.day("2024-05-13")
+				.build();
+
+		VideoDateUtil.applyDateFields(video);
+
+		Assertions.assertEquals(2024, video.getIsoYear());
+		Assertions.assertEquals(20, video.getIsoWeek());
+		Assertions.assertEquals(
+				LocalDate.of(2024, 5, 13)
+						.toEpochDay(),
+				video.getEpochDay()
+		);
+	}
+
+	@Test
+	void firstEpochDayOfWeek_withSuccess() {
+		Assertions.assertEquals(
+				LocalDate.of(2024, 12, 30)
+						.toEpochDay(),
+				VideoDateUtil.firstEpochDayOfWeek(2025, 1)
+		);
+		Assertions.assertEquals(
+				LocalDate.of(2020, 12, 28)
+						.toEpochDay(),
+				VideoDateUtil.firstEpochDayOfWeek(2020, 53)
+		);
+	}
+
+	@Test
+	void firstEpochDayOfWeek_withInvalidWeek_withError() {
+		Assertions.assertThrows(
+				IllegalArgumentException.class, () -> VideoDateUtil.firstEpochDayOfWeek(2021, 53)
+		);
+		Assertions.assertThrows(
+				IllegalArgumentException.class, () -> VideoDateUtil.firstEpochDayOfWeek(2021, 0)
+		);
+	}
+
+	@Test
+	void applyTimeFields_withSuccess() {
+		VideoDto videoDto = new VideoDto().toBuilder()
+				.from("08:05")
+				.till("23:59")
+				.build();
+
+		VideoDateUtil.applyTimeFields(videoDto);
+
+		Assertions.assertEquals(485, videoDto.getFromMinute());
+		Assertions.assertEquals(1439, videoDto.getTillMinute());
+	}
+
+	@Test
+	void applyTimeFields_withoutTimes_leavesThemEmpty() {
+		VideoDto videoDto = new VideoDto();
+
+		VideoDateUtil.applyTimeFields(videoDto);
+
+		Assertions.assertNull(videoDto.getFromMinute());
+		Assertions.assertNull(videoDto.getTillMinute());
+	}
+}
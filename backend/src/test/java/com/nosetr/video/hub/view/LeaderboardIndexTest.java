@@ -0,0 +1,92 @@
+package com.nosetr.video.hub.view;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.nosetr.video.hub.dto.VideoResponseDto;
+
+class LeaderboardIndexTest {
+
+	private final LeaderboardIndex index = new LeaderboardIndex();
+
+	@Test
+	void onVideoChanged_create_onlyRatedVideosRanked() {
+		index.onVideoChanged(null, video("unrated", 2024, 20, 0, 0));
+		index.onVideoChanged(null, video("good", 2024, 20, 2, 9));
+		index.onVideoChanged(null, video("best", 2024, 21, 1, 5));
+		index.onVideoChanged(null, video("other", 2023, 52, 1, 3));
+
+		Assertions.assertEquals(List.of("best", "good", "other"), ids(index.top(10)));
+		Assertions.assertEquals(List.of("best", "good"), ids(index.topOfYear(2024, 10)));
+		Assertions.assertEquals(List.of("good"), ids(index.topOfWeek(2024, 20, 10)));
+		Assertions.assertEquals(List.of("best"), ids(index.top(1)));
+		Assertions.assertEquals(List.of(), ids(index.topOfWeek(2024, 22, 10)));
+	}
+
+	@Test
+	void onVideoChanged_rate_reordered() {
+		VideoResponseDto first = video("v1", 2024, 20, 1, 5);
+		VideoResponseDto second = video("v2", 2024, 20, 1, 4);
+		index.onVideoChanged(null, first);
+		index.onVideoChanged(null, second);
+
+		VideoResponseDto rated = video("v1", 2024, 20, 2, 6);
+		index.onVideoChanged(first, rated);
+
+		Assertions.assertEquals(List.of("v2", "v1"), ids(index.top(10)));
+		Assertions.assertEquals(List.of("v2", "v1"), ids(index.topOfWeek(2024, 20, 10)));
+		Assertions.assertSame(rated, index.top(10)
+				.get(1));
+	}
+
+	@Test
+	void onVideoChanged_sameAverage_moreRatingsFirst() {
+		index.onVideoChanged(null, video("few", 2024, 20, 1, 4));
+		index.onVideoChanged(null, video("many", 2024, 20, 3, 12));
+
+		Assertions.assertEquals(List.of("many", "few"), ids(index.top(10)));
+	}
+
+	@Test
+	void onVideoChanged_weekChange_movesBetweenRankings() {
+		VideoResponseDto created = video("v1", 2024, 20, 1, 5);
+		index.onVideoChanged(null, created);
+		index.onVideoChanged(created, video("v1", 2025, 1, 1, 5));
+
+		Assertions.assertEquals(List.of(), ids(index.topOfYear(2024, 10)));
+		Assertions.assertEquals(List.of(), ids(index.topOfWeek(2024, 20, 10)));
+		Assertions.assertEquals(List.of("v1"), ids(index.topOfWeek(2025, 1, 10)));
+		Assertions.assertEquals(List.of("v1"), ids(index.top(10)));
+	}
+
+	@Test
+	void onVideoChanged_remove_goneFromEveryRanking() {
+		VideoResponseDto created = video("v1", 2024, 20, 1, 5);
+		index.onVideoChanged(null, created);
+		index.onVideoChanged(created, null);
+
+		Assertions.assertEquals(List.of(), ids(index.top(10)));
+		Assertions.assertEquals(List.of(), ids(index.topOfYear(2024, 10)));
+		Assertions.assertEquals(List.of(), ids(index.topOfWeek(2024, 20, 10)));
+	}
+
+	private static List<String> ids(List<VideoResponseDto> videos) {
+		return videos.stream()
+				.map(VideoResponseDto::getId)
+				.toList();
+	}
+
+	private static VideoResponseDto video(String id, int isoYear, int isoWeek, long ratingCount, long ratingSum) {
+		return new VideoResponseDto().toBuilder()
+				.id(id)
+				.userId("u1")
+				.isoYear(isoYear)
+				.isoWeek(isoWeek)
+				.ratingCount(ratingCount)
+				.ratingSum(ratingSum)
+				.averageRating((ratingCount == 0) ? 0 : (double) ratingSum / ratingCount)
+				.build();
+	}
+}
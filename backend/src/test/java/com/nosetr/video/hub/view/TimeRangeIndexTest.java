@@ -0,0 +1,115 @@
+package com.nosetr.video.hub.view;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.nosetr.video.hub.dto.VideoResponseDto;
+import com.nosetr.video.hub.view.TimeRangeIndex.Reservation;
+
+class TimeRangeIndexTest {
+
+	private static final long DAY = 19856L;
+
+	private final TimeRangeIndex index = new TimeRangeIndex();
+
+	@Test
+	void onVideoChanged_createMoveAndRemove() {
+		VideoResponseDto created = video("v1", "u1", 540, 600);
+		index.onVideoChanged(null, created);
+		Assertions.assertEquals(List.of(created), index.overlapping(DAY, 590, 700));
+		Assertions.assertEquals(List.of(), index.overlapping(DAY, 600, 700));
+
+		VideoResponseDto moved = video("v1", "u1", 720, 780);
+		index.onVideoChanged(created, moved);
+		Assertions.assertEquals(List.of(), index.overlapping(DAY, 540, 600));
+		Assertions.assertEquals(List.of(moved), index.overlapping(DAY, 700, 730));
+
+		index.onVideoChanged(moved, null);
+		Assertions.assertEquals(List.of(), index.overlapping(DAY, 0, TimeRangeIndex.MINUTES_PER_DAY));
+	}
+
+	@Test
+	void onVideoChanged_legacyVideo_indexedFromTheStrings() {
+		VideoResponseDto legacy = new VideoResponseDto().toBuilder()
+				.id("v1")
+				.userId("u1")
+				.day("2024-05-13")
+				.from("09:00")
+				.till("10:00")
+				.build();
+		index.onVideoChanged(null, legacy);
+
+		Assertions.assertEquals(List.of(legacy), index.overlapping(DAY, 570, 580));
+		Assertions.assertSame(legacy, index.findOverlapping("u1", DAY, 570, 580));
+	}
+
+	@Test
+	void findOverlapping_onlySameUser() {
+		index.onVideoChanged(null, video("v1", "u1", 540, 600));
+
+		Assertions.assertNotNull(index.findOverlapping("u1", DAY, 599, 660));
+		Assertions.assertNull(index.findOverlapping("u2", DAY, 599, 660));
+		Assertions.assertNull(index.findOverlapping("u1", DAY + 1, 540, 600));
+	}
+
+	@Test
+	void reserve_overlappingWriteInFlight_conflicts() {
+		Reservation first = index.reserve(video(null, "u1", 540, 600));
+		Assertions.assertNull(first.getConflict());
+
+		Reservation second = index.reserve(video(null, "u1", 570, 630));
+		Assertions.assertEquals(
+				540, second.getConflict()
+						.getFromMinute()
+		);
+		Assertions.assertNull(
+				index.reserve(video(null, "u2", 570, 630))
+						.getConflict()
+		);
+
+		first.release();
+		Assertions.assertNull(
+				index.reserve(video(null, "u1", 570, 630))
+						.getConflict()
+		);
+	}
+
+	@Test
+	void reserve_written_heldUntilTheViewShowsIt() {
+		Reservation reservation = index.reserve(video(null, "u1", 540, 600));
+		reservation.written("v1");
+		// Released only for writes that did not happen
+		reservation.release();
+		Assertions.assertNotNull(index.findOverlapping("u1", DAY, 570, 580));
+
+		VideoResponseDto shown = video("v1", "u1", 540, 600);
+		index.onVideoChanged(null, shown);
+		index.onVideoChanged(shown, null);
+		Assertions.assertNull(index.findOverlapping("u1", DAY, 570, 580));
+	}
+
+	@Test
+	void reserve_viewShowedTheVideoFirst_released() {
+		Reservation reservation = index.reserve(video(null, "u1", 540, 600));
+		VideoResponseDto shown = video("v1", "u1", 540, 600);
+		index.onVideoChanged(null, shown);
+
+		reservation.written("v1");
+		index.onVideoChanged(shown, null);
+
+		Assertions.assertNull(index.findOverlapping("u1", DAY, 570, 580));
+	}
+
+	private static VideoResponseDto video(String id, String userId, int fromMinute, int tillMinute) {
+		return new VideoResponseDto().toBuilder()
+				.id(id)
+				.userId(userId)
+				.title("Run")
+				.epochDay(DAY)
+				.fromMinute(fromMinute)
+				.tillMinute(tillMinute)
+				.build();
+	}
+}
@@ -0,0 +1,112 @@
+package com.nosetr.video.hub.view;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.nosetr.video.hub.dto.VideoResponseDto;
+
+class TitleSearchIndexTest {
+
+	private final TitleSearchIndex index = new TitleSearchIndex();
+
+	@Test
+	void tokenize_lowerCaseWordsWithoutDiacritics() {
+		Assertions.assertEquals(
+				List.of("creme", "brulee", "a", "la", "zurich", "2024"),
+				TitleSearchIndex.tokenize("Crème Brûlée à la  Zürich-2024!")
+		);
+		Assertions.assertEquals(List.of("run", "morning"), TitleSearchIndex.tokenize("Run, morning RUN"));
+		Assertions.assertEquals(List.of(), TitleSearchIndex.tokenize(" -- "));
+		Assertions.assertEquals(List.of(), TitleSearchIndex.tokenize(null));
+	}
+
+	@Test
+	void search_diacriticsAndCaseIgnored() {
+		index.onVideoChanged(null, video("v1", "Crème brûlée", 0));
+
+		Assertions.assertEquals(List.of("v1"), ids(index.search("CREME BRULEE", 10)));
+		Assertions.assertEquals(List.of("v1"), ids(index.search("brûl", 10)));
+	}
+
+	@Test
+	void search_everyTermMustMatchAPrefix() {
+		index.onVideoChanged(null, video("v1", "Morning run in the park", 0));
+		index.onVideoChanged(null, video("v2", "Evening run", 0));
+		index.onVideoChanged(null, video("v3", "Running late", 0));
+
+		Assertions.assertEquals(List.of("v1", "v2", "v3"), ids(index.search("run", 10)).stream()
+				.sorted()
+				.toList());
+		Assertions.assertEquals(List.of("v1"), ids(index.search("mor ru", 10)));
+		Assertions.assertEquals(List.of(), ids(index.search("morning late", 10)));
+		Assertions.assertEquals(List.of(), ids(index.search("unning", 10)));
+		Assertions.assertEquals(List.of(), ids(index.search("", 10)));
+	}
+
+	@Test
+	void search_rankedByExactMatchesThenRating() {
+		index.onVideoChanged(null, video("prefix", "Running", 5));
+		index.onVideoChanged(null, video("low", "Run", 2));
+		index.onVideoChanged(null, video("high", "Run fast", 4));
+
+		Assertions.assertEquals(List.of("high", "low", "prefix"), ids(index.search("run", 10)));
+		Assertions.assertEquals(List.of("high", "low"), ids(index.search("run", 2)));
+	}
+
+	@Test
+	void onVideoChanged_titleChangeAndRemoval() {
+		VideoResponseDto original = video("v1", "Morning run", 0);
+		index.onVideoChanged(null, original);
+
+		VideoResponseDto renamed = video("v1", "Evening swim", 0);
+		index.onVideoChanged(original, renamed);
+		Assertions.assertEquals(List.of(), ids(index.search("morning", 10)));
+		Assertions.assertEquals(List.of("v1"), ids(index.search("swim", 10)));
+
+		// Same title: only the stored video is replaced
+		VideoResponseDto rated = video("v1", "Evening swim", 3);
+		index.onVideoChanged(renamed, rated);
+		Assertions.assertSame(rated, index.search("evening", 10)
+				.get(0));
+
+		index.onVideoChanged(rated, null);
+		Assertions.assertEquals(List.of(), ids(index.search("evening", 10)));
+	}
+
+	@Test
+	void onVideoChanged_manyTitleChanges_compactedWithoutLosingVideos() {
+		index.onVideoChanged(null, video("other", "Steady title", 0));
+
+		VideoResponseDto current = video("v1", "Title 0", 0);
+		index.onVideoChanged(null, current);
+		// Well past the tombstones that trigger a compaction
+		for (int i = 1; i <= 3000; i++) {
+			VideoResponseDto renamed = video("v1", "Title " + i, 0);
+			index.onVideoChanged(current, renamed);
+			current = renamed;
+		}
+
+		Assertions.assertEquals(List.of("v1"), ids(index.search("title 3000", 10)));
+		Assertions.assertEquals(List.of(), ids(index.search("title 2999", 10)));
+		Assertions.assertEquals(List.of("other"), ids(index.search("steady", 10)));
+		Assertions.assertEquals(List.of("other", "v1"), ids(index.search("title", 10)).stream()
+				.sorted()
+				.toList());
+	}
+
+	private static List<String> ids(List<VideoResponseDto> videos) {
+		return videos.stream()
+				.map(VideoResponseDto::getId)
+				.toList();
+	}
+
+	private static VideoResponseDto video(String id, String title, double averageRating) {
+		return new VideoResponseDto().toBuilder()
+				.id(id)
+				.title(title)
+				.averageRating(averageRating)
+				.build();
+	}
+}
@@ -0,0 +1,87 @@
+package com.nosetr.video.hub.view;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.nosetr.video.hub.dto.ScoreDto;
+import com.nosetr.video.hub.dto.UserStatsDto;
+import com.nosetr.video.hub.dto.VideoResponseDto;
+
+class UserStatsIndexTest {
+
+	private final UserStatsIndex index = new UserStatsIndex();
+
+	@Test
+	void onVideoChanged_create_countsOwnerAndVoters() {
+		index.onVideoChanged(null, video("v1", "u1", 5, "a", "b"));
+		index.onVideoChanged(null, video("v2", "u1", 3, "a"));
+
+		Assertions.assertEquals(new UserStatsDto("u1", 2, 3, 13 / 3.0, 0), index.get("u1"));
+		Assertions.assertEquals(new UserStatsDto("a", 0, 0, 0, 2), index.get("a"));
+		Assertions.assertEquals(new UserStatsDto("b", 0, 0, 0, 1), index.get("b"));
+	}
+
+	@Test
+	void onVideoChanged_rate_onlyTheNewVotesCounted() {
+		VideoResponseDto created = video("v1", "u1", 4, "a");
+		index.onVideoChanged(null, created);
+		VideoResponseDto rated = video("v1", "u1", 4, "a", "b");
+		index.onVideoChanged(created, rated);
+
+		Assertions.assertEquals(new UserStatsDto("u1", 1, 2, 4, 0), index.get("u1"));
+		Assertions.assertEquals(1, index.get("a")
+				.getVotesCast());
+		Assertions.assertEquals(1, index.get("b")
+				.getVotesCast());
+	}
+
+	@Test
+	void onVideoChanged_ownerChange_movesVideoAndRatings() {
+		VideoResponseDto created = video("v1", "u1", 4, "a");
+		index.onVideoChanged(null, created);
+		index.onVideoChanged(created, video("v1", "u2", 4, "a"));
+
+		Assertions.assertEquals(new UserStatsDto("u1", 0, 0, 0, 0), index.get("u1"));
+		Assertions.assertEquals(new UserStatsDto("u2", 1, 1, 4, 0), index.get("u2"));
+		Assertions.assertEquals(1, index.get("a")
+				.getVotesCast());
+	}
+
+	@Test
+	void onVideoChanged_remove_backToZero() {
+		VideoResponseDto first = video("v1", "u1", 4, "a");
+		VideoResponseDto second = video("v2", "a", 2, "u1");
+		index.onVideoChanged(null, first);
+		index.onVideoChanged(null, second);
+
+		index.onVideoChanged(first, null);
+		Assertions.assertEquals(new UserStatsDto("u1", 0, 0, 0, 1), index.get("u1"));
+		Assertions.assertEquals(new UserStatsDto("a", 1, 1, 2, 0), index.get("a"));
+
+		index.onVideoChanged(second, null);
+		Assertions.assertEquals(new UserStatsDto("u1", 0, 0, 0, 0), index.get("u1"));
+		Assertions.assertEquals(new UserStatsDto("a", 0, 0, 0, 0), index.get("a"));
+	}
+
+	@Test
+	void get_unknownUser_zeros() {
+		Assertions.assertEquals(new UserStatsDto("nobody", 0, 0, 0, 0), index.get("nobody"));
+	}
+
+	private static VideoResponseDto video(String id, String userId, int score, String... voters) {
+		List<ScoreDto> ratings = Arrays.stream(voters)
+				.map(voter -> new ScoreDto(voter, score, null))
+				.toList();
+
+		return new VideoResponseDto().toBuilder()
+				.id(id)
+				.userId(userId)
+				.ratings(ratings)
+				.ratingCount(ratings.size())
+				.ratingSum((long) score * ratings.size())
+				.build();
+	}
+}
@@ -0,0 +1,107 @@
+package com.nosetr.video.hub.view;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+
+import com.nosetr.video.hub.dto.VideoEventDto;
+import com.nosetr.video.hub.dto.VideoEventDto.Type;
+import com.nosetr.video.hub.dto.VideoResponseDto;
+
+import reactor.core.Disposable;
+import reactor.test.StepVerifier;
+
+class VideoFeedTest {
+
+	@Test
+	void subscribe_everySubscriberGetsEveryEvent() {
+		VideoFeed feed = new VideoFeed(16, Duration.ofSeconds(15));
+		List<ServerSentEvent<VideoEventDto>> other = new CopyOnWriteArrayList<>();
+		Disposable otherSubscription = feed.subscribe()
+				.subscribe(other::add);
+
+		StepVerifier.withVirtualTime(feed::subscribe)
+				.expectNextMatches(comment("connected"))
+				.then(() -> feed.onVideoChanged(null, video("v1", 0)))
+				.expectNextMatches(event(Type.CREATED, "v1"))
+				.then(() -> feed.onVideoChanged(video("v1", 0), video("v1", 1)))
+				.expectNextMatches(event(Type.RATED, "v1"))
+				.then(() -> feed.onVideoChanged(video("v1", 1), null))
+				.expectNextMatches(event(Type.REMOVED, "v1"))
+				.thenCancel()
+				.verify(Duration.ofSeconds(5));
+
+		otherSubscription.dispose();
+		Assertions.assertEquals(4, other.size());
+		Assertions.assertEquals(
+				List.of("1", "2", "3"), other.subList(1, 4)
+						.stream()
+						.map(ServerSentEvent::id)
+						.toList()
+		);
+	}
+
+	@Test
+	void subscribe_slowSubscriber_losesOldestEvents() {
+		VideoFeed feed = new VideoFeed(2, Duration.ofSeconds(15));
+
+		StepVerifier.withVirtualTime(feed::subscribe, 1)
+				.expectNextMatches(comment("connected"))
+				.then(() -> {
+					for (int i = 1; i <= 5; i++) {
+						feed.onVideoChanged(null, video("v" + i, 0));
+					}
+				})
+				.thenRequest(2)
+				.expectNextMatches(event(Type.CREATED, "v4"))
+				.expectNextMatches(event(Type.CREATED, "v5"))
+				.thenCancel()
+				.verify(Duration.ofSeconds(5));
+
+		Assertions.assertEquals(3, feed.getDropped());
+	}
+
+	@Test
+	void subscribe_idle_heartbeats() {
+		VideoFeed feed = new VideoFeed(16, Duration.ofSeconds(15));
+
+		StepVerifier.withVirtualTime(feed::subscribe)
+				.expectNextMatches(comment("connected"))
+				.expectNoEvent(Duration.ofSeconds(14))
+				.thenAwait(Duration.ofSeconds(1))
+				.expectNextMatches(comment("heartbeat"))
+				.thenAwait(Duration.ofSeconds(15))
+				.expectNextMatches(comment("heartbeat"))
+				.thenCancel()
+				.verify(Duration.ofSeconds(5));
+
+		Assertions.assertEquals(0, feed.getSubscriberCount());
+	}
+
+	private static Predicate<ServerSentEvent<VideoEventDto>> comment(String comment) {
+		return event -> comment.equals(event.comment()) && event.data() == null;
+	}
+
+	private static Predicate<ServerSentEvent<VideoEventDto>> event(Type type, String id) {
+		return event -> type.name()
+				.equals(event.event())
+				&& id.equals(
+						event.data()
+								.getVideo()
+								.getId()
+				);
+	}
+
+	private static VideoResponseDto video(String id, long ratingCount) {
+		return new VideoResponseDto().toBuilder()
+				.id(id)
+				.title("Run")
+				.ratingCount(ratingCount)
+				.build();
+	}
+}
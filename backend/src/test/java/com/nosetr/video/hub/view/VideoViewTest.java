@@ -0,0 +1,133 @@
+package com.nosetr.video.hub.view;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import com.nosetr.video.hub.dto.VideoResponseDto;
+import com.nosetr.video.hub.repository.VideoDocumentChange;
+import com.nosetr.video.hub.repository.VideoRepository;
+
+import reactor.core.Disposable;
+
+class VideoViewTest {
+
+	private final VideoRepository videoRepository = mock(VideoRepository.class);
+	private final List<String> seen = new ArrayList<>();
+
+	@SuppressWarnings("unchecked")
+	private final ArgumentCaptor<Consumer<List<VideoDocumentChange>>> onChanges = ArgumentCaptor.forClass(Consumer.class);
+	@SuppressWarnings("unchecked")
+	private final ArgumentCaptor<Consumer<Throwable>> onError = ArgumentCaptor.forClass(Consumer.class);
+
+	@Test
+	void listenerError_listensAgainAndAppliesTheDifference() {
+		VideoView videoView = videoView();
+		videoView.start();
+
+		verify(videoRepository).listen(onChanges.capture(), onError.capture());
+		onChanges.getValue()
+				.accept(List.of(change("a", "A"), change("b", "B")));
+		Assertions.assertTrue(videoView.isReady());
+
+		onError.getValue()
+				.accept(new IllegalStateException("stream closed"));
+		Assertions.assertFalse(videoView.isReady());
+
+		// A new listener after the backoff, its snapshot: a removed, b renamed, c added
+		verify(videoRepository, timeout(1000).times(2)).listen(onChanges.capture(), onError.capture());
+		seen.clear();
+		onChanges.getValue()
+				.accept(List.of(change("b", "B2"), change("c", "C")));
+
+		Assertions.assertTrue(videoView.isReady());
+		Assertions.assertNull(videoView.get("a"));
+		Assertions.assertEquals(
+				"B2", videoView.get("b")
+						.getTitle()
+		);
+		Assertions.assertEquals(List.of("a:A>-", "b:B>B2", "c:->C"), seen);
+		Assertions.assertEquals(
+				List.of("b", "c"), videoView.getByUser("u1")
+						.stream()
+						.map(VideoResponseDto::getId)
+						.sorted()
+						.toList()
+		);
+
+		videoView.stop();
+	}
+
+	@Test
+	void snapshot_unchangedVideos_areNotReported() {
+		VideoView videoView = videoView();
+		videoView.start();
+
+		verify(videoRepository).listen(onChanges.capture(), onError.capture());
+		onChanges.getValue()
+				.accept(List.of(change("a", "A")));
+		onChanges.getValue()
+				.accept(List.of(change("a", "A")));
+
+		Assertions.assertEquals(List.of("a:->A"), seen);
+		videoView.stop();
+	}
+
+	@Test
+	void stop_cancelsPendingRetry() throws InterruptedException {
+		VideoView videoView = videoView();
+		videoView.start();
+
+		verify(videoRepository).listen(onChanges.capture(), onError.capture());
+		onError.getValue()
+				.accept(new IllegalStateException("stream closed"));
+		videoView.stop();
+
+		Thread.sleep(100);
+		verify(videoRepository, times(1)).listen(any(), any());
+	}
+
+	private VideoView videoView() {
+		when(videoRepository.listen(any(), any()))
+				.thenReturn(mock(Disposable.class));
+
+		VideoChangeListener recorder = (before, after) -> seen.add(
+				((after != null) ? after.getId() : before.getId()) + ":" + title(before) + ">" + title(after)
+		);
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("recorder", recorder));
+
+		return new VideoView(
+				videoRepository, beanFactory.getBeanProvider(VideoChangeListener.class), true, true, Duration.ofMillis(10),
+				Duration.ofMillis(10)
+		);
+	}
+
+	private static String title(VideoResponseDto video) {
+		return (video == null) ? "-" : video.getTitle();
+	}
+
+	private static VideoDocumentChange change(String id, String title) {
+		return new VideoDocumentChange(
+				id, new VideoResponseDto().toBuilder()
+						.id(id)
+						.userId("u1")
+						.title(title)
+						.epochDay(19856L)
+						.build()
+		);
+	}
+}
@@ -0,0 +1,165 @@
+package com.nosetr.video.hub.view;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.nosetr.video.hub.dto.ContributorDto;
+import com.nosetr.video.hub.dto.ScoreDto;
+import com.nosetr.video.hub.dto.VideoResponseDto;
+import com.nosetr.video.hub.dto.WeekStatsDto;
+import com.nosetr.video.hub.dto.YearStatsDto;
+
+class WeeklyRollupIndexTest {
+
+	private final WeeklyRollupIndex index = new WeeklyRollupIndex();
+
+	@Test
+	void onVideoChanged_create_countedInWeekAndYear() {
+		index.onVideoChanged(null, video("v1", "u1", 2024, 20, "a", "b"));
+		index.onVideoChanged(null, video("v2", "u1", 2024, 21, "b"));
+		index.onVideoChanged(null, video("v3", "u2", 2024, 21));
+
+		YearStatsDto year = index.get(2024);
+		Assertions.assertEquals(3, year.getVideoCount());
+		Assertions.assertEquals(3, year.getRatingCount());
+		Assertions.assertEquals(12, year.getRatingSum());
+		Assertions.assertEquals(4.0, year.getAverageRating());
+		Assertions.assertEquals(2, year.getDistinctVoters());
+		Assertions.assertEquals(List.of(new ContributorDto("u1", 2), new ContributorDto("u2", 1)), year.getTopContributors());
+
+		Assertions.assertEquals(
+				List.of(20, 21), year.getWeeks()
+						.stream()
+						.map(WeekStatsDto::getIsoWeek)
+						.toList()
+		);
+		WeekStatsDto week = week(year, 21);
+		Assertions.assertEquals(2, week.getVideoCount());
+		Assertions.assertEquals(1, week.getRatingCount());
+		Assertions.assertEquals(1, week.getDistinctVoters());
+		Assertions.assertEquals(List.of(new ContributorDto("u1", 1), new ContributorDto("u2", 1)), week.getTopContributors());
+	}
+
+	@Test
+	void onVideoChanged_rate_onlyTheDifferenceCounted() {
+		VideoResponseDto created = video("v1", "u1", 2024, 20, "a");
+		index.onVideoChanged(null, created);
+		VideoResponseDto rated = video("v1", "u1", 2024, 20, "a", "b", "c");
+		index.onVideoChanged(created, rated);
+
+		YearStatsDto year = index.get(2024);
+		Assertions.assertEquals(1, year.getVideoCount());
+		Assertions.assertEquals(3, year.getRatingCount());
+		Assertions.assertEquals(3, year.getDistinctVoters());
+		Assertions.assertEquals(3, week(year, 20).getDistinctVoters());
+	}
+
+	@Test
+	void onVideoChanged_weekAndYearChange_movesEverything() {
+		VideoResponseDto created = video("v1", "u1", 2024, 20, "a");
+		index.onVideoChanged(null, created);
+		VideoResponseDto moved = video("v1", "u1", 2025, 1, "a");
+		index.onVideoChanged(created, moved);
+
+		assertEmpty(index.get(2024));
+
+		YearStatsDto year = index.get(2025);
+		Assertions.assertEquals(1, year.getVideoCount());
+		Assertions.assertEquals(1, year.getDistinctVoters());
+		Assertions.assertEquals(1, week(year, 1).getRatingCount());
+	}
+
+	@Test
+	void onVideoChanged_ownerChange_movesTheContribution() {
+		VideoResponseDto created = video("v1", "u1", 2024, 20, "a");
+		index.onVideoChanged(null, created);
+		index.onVideoChanged(created, video("v1", "u2", 2024, 20, "a"));
+
+		YearStatsDto year = index.get(2024);
+		Assertions.assertEquals(1, year.getVideoCount());
+		Assertions.assertEquals(List.of(new ContributorDto("u2", 1)), year.getTopContributors());
+		Assertions.assertEquals(1, year.getDistinctVoters());
+	}
+
+	@Test
+	void onVideoChanged_remove_everythingBackToZero() {
+		VideoResponseDto first = video("v1", "u1", 2024, 20, "a", "b");
+		VideoResponseDto second = video("v2", "u2", 2024, 20, "a");
+		index.onVideoChanged(null, first);
+		index.onVideoChanged(null, second);
+
+		index.onVideoChanged(first, null);
+		YearStatsDto year = index.get(2024);
+		Assertions.assertEquals(1, year.getVideoCount());
+		// Voter a still voted for the second video
+		Assertions.assertEquals(1, year.getDistinctVoters());
+		Assertions.assertEquals(List.of(new ContributorDto("u2", 1)), year.getTopContributors());
+
+		index.onVideoChanged(second, null);
+		assertEmpty(index.get(2024));
+	}
+
+	@Test
+	void get_topContributors_limitedAndOrderedByCount() {
+		for (int user = 0; user < 7; user++) {
+			for (int video = 0; video <= user; video++) {
+				index.onVideoChanged(null, video("v" + user + "-" + video, "u" + user, 2024, 20));
+			}
+		}
+
+		Assertions.assertEquals(
+				List.of("u6", "u5", "u4", "u3", "u2"), index.get(2024)
+						.getTopContributors()
+						.stream()
+						.map(ContributorDto::getUserId)
+						.toList()
+		);
+	}
+
+	@Test
+	void onVideoChanged_withoutDateFields_ignored() {
+		VideoResponseDto legacy = video("v1", "u1", 2024, 20, "a").toBuilder()
+				.isoYear(null)
+				.isoWeek(null)
+				.build();
+		index.onVideoChanged(null, legacy);
+
+		assertEmpty(index.get(2024));
+	}
+
+	private static void assertEmpty(YearStatsDto year) {
+		Assertions.assertEquals(0, year.getVideoCount());
+		Assertions.assertEquals(0, year.getRatingCount());
+		Assertions.assertEquals(0, year.getDistinctVoters());
+		Assertions.assertEquals(List.of(), year.getTopContributors());
+		Assertions.assertEquals(List.of(), year.getWeeks());
+	}
+
+	private static WeekStatsDto week(YearStatsDto year, int isoWeek) {
+		return year.getWeeks()
+				.stream()
+				.filter(week -> week.getIsoWeek() == isoWeek)
+				.findFirst()
+				.orElseThrow();
+	}
+
+	private static VideoResponseDto video(String id, String userId, int isoYear, int isoWeek, String... voters) {
+		List<ScoreDto> ratings = Arrays.stream(voters)
+				.map(voter -> new ScoreDto(voter, 4, null))
+				.toList();
+
+		return new VideoResponseDto().toBuilder()
+				.id(id)
+				.userId(userId)
+				.isoYear(isoYear)
+				.isoWeek(isoWeek)
+				.ratings(ratings)
+				.ratingCount(ratings.size())
+				.ratingSum(4L * ratings.size())
+				.averageRating(ratings.isEmpty() ? 0 : 4)
+				.build();
+	}
+}